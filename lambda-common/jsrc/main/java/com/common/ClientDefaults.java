@@ -0,0 +1,82 @@
+package com.common;
+
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.ContainerCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
+import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.awscore.client.builder.AwsSyncClientBuilder;
+import software.amazon.awssdk.core.SdkSystemSetting;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+
+import java.time.Duration;
+
+/**
+ * Client settings shared by the handlers of every function, tuned for a short init phase:
+ * - the URLConnection HTTP client, which loads far fewer classes than the Apache one,
+ * - region and credentials provider set explicitly, so the default chains are never probed.
+ *
+ * The functions keep their own AwsClients class with one holder per client, so each client is
+ * still created on first use; this class only decides how they are configured. The HTTP client
+ * and the credentials provider are shared by all sync clients of the container.
+ */
+public final class ClientDefaults {
+
+	public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+	public static final Duration SOCKET_TIMEOUT = Duration.ofSeconds(10);
+
+	private ClientDefaults() {
+	}
+
+	/**
+	 * Region of the function configuration, or the one of the runtime (AWS_REGION, or the
+	 * aws.region system property outside of Lambda) when the variable is not set.
+	 */
+	public static Region region(String regionVariable) {
+		String region = System.getenv(regionVariable);
+		if (region == null || region.isEmpty()) {
+			region = SdkSystemSetting.AWS_REGION.getStringValue()
+					.orElseThrow(() -> new IllegalStateException("No region in " + regionVariable + " or AWS_REGION"));
+		}
+		return Region.of(region);
+	}
+
+	public static AwsCredentialsProvider credentials() {
+		return Shared.CREDENTIALS;
+	}
+
+	public static SdkHttpClient httpClient() {
+		return Shared.HTTP_CLIENT;
+	}
+
+	/**
+	 * Applies region, credentials and the shared HTTP client to a sync client builder.
+	 */
+	public static <B extends AwsClientBuilder<B, ?> & AwsSyncClientBuilder<B, ?>> B configure(B builder,
+			String regionVariable) {
+		return builder
+				.region(region(regionVariable))
+				.credentialsProvider(credentials())
+				.httpClient(httpClient());
+	}
+
+	/**
+	 * Lambda passes credentials as environment variables, or through the container credentials
+	 * endpoint when the function is restored from a SnapStart snapshot.
+	 */
+	private static AwsCredentialsProvider createCredentials() {
+		if (System.getenv("AWS_CONTAINER_CREDENTIALS_FULL_URI") != null) {
+			return ContainerCredentialsProvider.builder().build();
+		}
+		return EnvironmentVariableCredentialsProvider.create();
+	}
+
+	private static final class Shared {
+		static final AwsCredentialsProvider CREDENTIALS = createCredentials();
+		static final SdkHttpClient HTTP_CLIENT = UrlConnectionHttpClient.builder()
+				.connectionTimeout(CONNECT_TIMEOUT)
+				.socketTimeout(SOCKET_TIMEOUT)
+				.build();
+	}
+}
@@ -0,0 +1,66 @@
+package com.common;
+
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import software.amazon.awssdk.core.exception.SdkException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Init-phase work of a function container. Each function extends it with its own warm-up and
+ * client priming and keeps the single instance in a static field.
+ *
+ * {@link #ready} runs the warm-up once, so the classes of the hot paths are loaded before the
+ * first request, and logs how long the handler took to initialize.
+ *
+ * The instance is registered as a CRaC resource, so before a SnapStart checkpoint it warms up
+ * and also primes the SDK clients, loading their request pipeline into the snapshot. Outside of
+ * SnapStart the hooks are never called.
+ */
+public abstract class LambdaStartup implements Resource {
+
+	protected LambdaStartup() {
+		// CRaC keeps weak references, the static field of the subclass keeps the resource alive
+		Core.getGlobalContext().register(this);
+	}
+
+	/**
+	 * @param initStartedAt System.nanoTime() taken in the static initializer of the handler
+	 */
+	public final void ready(String handler, long initStartedAt) {
+		long warmUpStartedAt = System.nanoTime();
+		warmUp();
+		long now = System.nanoTime();
+		System.out.println(handler + " init: totalMs=" + TimeUnit.NANOSECONDS.toMillis(now - initStartedAt)
+				+ " warmUpMs=" + TimeUnit.NANOSECONDS.toMillis(now - warmUpStartedAt));
+	}
+
+	@Override
+	public final void beforeCheckpoint(Context<? extends Resource> context) {
+		long startedAt = System.nanoTime();
+		warmUp();
+		try {
+			primeClients();
+		} catch (SdkException e) {
+			// only the loaded code paths matter, not the answer
+			System.out.println("checkpoint priming call failed: " + e.getMessage());
+		}
+		System.out.println("checkpoint priming: ms=" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+	}
+
+	@Override
+	public void afterRestore(Context<? extends Resource> context) {
+		System.out.println("restored from snapshot");
+	}
+
+	/**
+	 * Runs the local hot paths of the handler once. Must not call AWS.
+	 */
+	protected abstract void warmUp();
+
+	/**
+	 * Creates the SDK clients of the function and makes one cheap call with them.
+	 */
+	protected abstract void primeClients();
+}
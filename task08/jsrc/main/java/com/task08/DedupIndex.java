@@ -0,0 +1,427 @@
+package com.task08;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Optional uniqueness check of the generated ids across runs.
+ *
+ * Every id of a batch is tested against a {@link ScalableBloomFilter} and then added to it. A
+ * filter hit is only a probable collision; it is confirmed exactly against the earlier ids of the
+ * same batch and against the batches listed in the hourly manifests of the last
+ * dedup_confirm_hours hours. Hits found in neither are reported as unresolved: a false positive,
+ * or a collision older than the window.
+ *
+ * The filter is persisted as a snapshot plus a journal, so a tick never rewrites the whole filter:
+ * - every checked batch is appended as one small journal object under dedup_journal_prefix,
+ *   named by the batch time so the names sort in time order, holding its ids as msb, lsb pairs;
+ * - the snapshot (dedup_key) is the filter and a watermark, the last journal object it contains.
+ *   It is rewritten only after dedup_snapshot_ids ids or dedup_snapshot_seconds seconds.
+ * A container loads the snapshot once and replays the journal after the watermark with
+ * ListObjectsV2 StartAfter, which brings in the batches of concurrent containers. A journal object
+ * is written after its batch is uploaded, so it can appear up to JOURNAL_GRACE after the time in
+ * its name, behind objects that are already listed. A warm container therefore starts every
+ * listing JOURNAL_GRACE before the batch time of its previous tick and skips the objects it has
+ * already replayed or written, and the watermark is kept JOURNAL_GRACE behind the batch time.
+ * Adding an id twice is harmless, so replay needs no coordination and snapshots are plain
+ * overwrites: each one is consistent up to its own watermark. Journal objects before the
+ * watermark of the current snapshot are never read again; a lifecycle rule on the prefix can
+ * expire them.
+ */
+public class DedupIndex {
+
+	private static final String DEFAULT_KEY = "dedup/uuid-bloom.bin";
+	private static final long DEFAULT_CAPACITY = 1_000_000;
+	private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.000001;
+	private static final long DEFAULT_MAX_MB = 512;
+	private static final int DEFAULT_CONFIRM_HOURS = 2;
+	private static final String DEFAULT_JOURNAL_PREFIX = "dedup/journal/";
+	private static final long DEFAULT_SNAPSHOT_IDS = 100_000;
+	private static final long DEFAULT_SNAPSHOT_SECONDS = 3600;
+	static final Duration JOURNAL_GRACE = Duration.ofMinutes(5);
+	private static final int SNAPSHOT_MAGIC = 0x55445331; // "UDS1"
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private final S3Client s3;
+	private final String bucket;
+	private final String key;
+	private final HourlyManifest manifest;
+	private final long capacity;
+	private final double falsePositiveRate;
+	private final long maxBytes;
+	private final int confirmHours;
+	private final int partSize;
+	private final int concurrency;
+	private final String journalPrefix;
+	private final long snapshotIds;
+	private final Duration snapshotInterval;
+
+	private ScalableBloomFilter filter;
+	// journal objects after the watermark that are in the filter, replayed or written here
+	private final NavigableSet<String> journaled = new TreeSet<>();
+	private String watermark;
+	// every journal object before it is in the filter; the next listing starts there
+	private String listFrom;
+	private long idsSinceSnapshot;
+	private Instant lastSnapshotAt;
+
+	public DedupIndex(S3Client s3, String bucket, String key, HourlyManifest manifest, long capacity,
+					  double falsePositiveRate, long maxBytes, int confirmHours, int partSize, int concurrency,
+					  String journalPrefix, long snapshotIds, long snapshotSeconds) {
+		this.s3 = s3;
+		this.bucket = bucket;
+		this.key = key;
+		this.manifest = manifest;
+		this.capacity = capacity;
+		this.falsePositiveRate = falsePositiveRate;
+		this.maxBytes = maxBytes;
+		this.confirmHours = confirmHours;
+		this.partSize = partSize;
+		this.concurrency = concurrency;
+		this.journalPrefix = journalPrefix;
+		this.snapshotIds = snapshotIds;
+		this.snapshotInterval = Duration.ofSeconds(snapshotSeconds);
+	}
+
+	/**
+	 * @return null unless dedup_enabled is true
+	 */
+	public static DedupIndex fromEnv(S3Client s3, String bucket, HourlyManifest manifest, int partSize, int concurrency) {
+		if (!Boolean.parseBoolean(System.getenv("dedup_enabled"))) {
+			return null;
+		}
+		String key = System.getenv("dedup_key");
+		String rate = System.getenv("dedup_fp_rate");
+		String journalPrefix = System.getenv("dedup_journal_prefix");
+		return new DedupIndex(s3, bucket, key == null || key.isEmpty() ? DEFAULT_KEY : key, manifest,
+				longFromEnv("dedup_capacity", DEFAULT_CAPACITY),
+				rate == null || rate.isEmpty() ? DEFAULT_FALSE_POSITIVE_RATE : Double.parseDouble(rate),
+				longFromEnv("dedup_max_mb", DEFAULT_MAX_MB) * 1024 * 1024,
+				(int) longFromEnv("dedup_confirm_hours", DEFAULT_CONFIRM_HOURS),
+				partSize, concurrency,
+				journalPrefix == null || journalPrefix.isEmpty() ? DEFAULT_JOURNAL_PREFIX : journalPrefix,
+				longFromEnv("dedup_snapshot_ids", DEFAULT_SNAPSHOT_IDS),
+				longFromEnv("dedup_snapshot_seconds", DEFAULT_SNAPSHOT_SECONDS));
+	}
+
+	/**
+	 * @param ids    count ids as msb, lsb pairs
+	 * @param self   key of the batch the ids belong to, skipped during confirmation
+	 */
+	public Report check(long[] ids, int count, Instant createdAt, String self) throws IOException {
+		if (filter == null) {
+			load(createdAt);
+		}
+		Report report = new Report(count);
+		report.replayed = replay(createdAt);
+		Set<UUID> candidates = new HashSet<>();
+		for (int i = 0; i < count; i++) {
+			long msb = ids[2 * i];
+			long lsb = ids[2 * i + 1];
+			if (filter.put(msb, lsb)) {
+				continue;
+			}
+			report.probable++;
+			if (indexOf(ids, i, msb, lsb) >= 0) {
+				report.inBatch++;
+			} else {
+				candidates.add(new UUID(msb, lsb));
+			}
+		}
+		if (!candidates.isEmpty()) {
+			report.acrossRuns = confirm(candidates, createdAt, self);
+			report.unresolved = candidates.size() - report.acrossRuns;
+		}
+		appendJournal(ids, count, createdAt);
+		if (idsSinceSnapshot >= snapshotIds || !createdAt.isBefore(lastSnapshotAt.plus(snapshotInterval))) {
+			try {
+				report.snapshotSaved = saveSnapshot(createdAt);
+			} catch (IOException | S3Exception e) {
+				// the batch is journaled, the next tick tries again
+				report.snapshotError = e.getMessage();
+			}
+		}
+		report.filterIds = filter.size();
+		report.filterBytes = filter.sizeInBytes();
+		report.saturated = filter.isSaturated();
+		return report;
+	}
+
+	/**
+	 * Journal object name of a batch: the zero-padded batch time sorts in time order, the random
+	 * suffix keeps batches of the same millisecond apart.
+	 */
+	String journalKey(Instant createdAt) {
+		return String.format("%s%015d-%08x", journalPrefix, createdAt.toEpochMilli(),
+				ThreadLocalRandom.current().nextInt());
+	}
+
+	private void load(Instant now) throws IOException {
+		try (ResponseInputStream<GetObjectResponse> in = s3.getObject(GetObjectRequest.builder()
+				.bucket(bucket)
+				.key(key)
+				.build())) {
+			DataInputStream data = new DataInputStream(in);
+			if (data.readInt() != SNAPSHOT_MAGIC) {
+				throw new IOException("Not a dedup snapshot: " + key);
+			}
+			String snapshotWatermark = data.readUTF();
+			filter = ScalableBloomFilter.readFrom(in, capacity, falsePositiveRate, maxBytes);
+			watermark = snapshotWatermark.isEmpty() ? null : snapshotWatermark;
+			lastSnapshotAt = in.response().lastModified() != null ? in.response().lastModified() : now;
+		} catch (NoSuchKeyException e) {
+			filter = new ScalableBloomFilter(capacity, falsePositiveRate, maxBytes);
+			watermark = null;
+			lastSnapshotAt = now;
+		}
+		listFrom = watermark;
+		journaled.clear();
+		idsSinceSnapshot = 0;
+	}
+
+	/**
+	 * Adds the ids of the journal objects written since the last listing, including late ones
+	 * named up to JOURNAL_GRACE before the previous batch.
+	 *
+	 * @return number of ids replayed
+	 */
+	private long replay(Instant createdAt) throws IOException {
+		long replayed = 0;
+		String startAfter = listFrom;
+		String continuationToken = null;
+		do {
+			ListObjectsV2Response page = s3.listObjectsV2(ListObjectsV2Request.builder()
+					.bucket(bucket)
+					.prefix(journalPrefix)
+					.startAfter(startAfter)
+					.continuationToken(continuationToken)
+					.build());
+			for (S3Object object : page.contents()) {
+				String journalKey = object.key();
+				if (!journaled.contains(journalKey)) {
+					replayed += replayEntry(journalKey);
+					journaled.add(journalKey);
+				}
+			}
+			continuationToken = Boolean.TRUE.equals(page.isTruncated()) ? page.nextContinuationToken() : null;
+		} while (continuationToken != null);
+		// objects named before the cutoff are written by now, so this listing has seen all of them
+		String cutoff = graceCutoff(createdAt);
+		if (listFrom == null || cutoff.compareTo(listFrom) > 0) {
+			listFrom = cutoff;
+		}
+		idsSinceSnapshot += replayed;
+		return replayed;
+	}
+
+	/**
+	 * Sorts before every journal object of the batch time less JOURNAL_GRACE and after the earlier ones.
+	 */
+	private String graceCutoff(Instant createdAt) {
+		return String.format("%s%015d", journalPrefix, createdAt.minus(JOURNAL_GRACE).toEpochMilli());
+	}
+
+	private long replayEntry(String journalKey) throws IOException {
+		ByteBuffer entry;
+		try {
+			ResponseBytes<GetObjectResponse> bytes = s3.getObjectAsBytes(GetObjectRequest.builder()
+					.bucket(bucket)
+					.key(journalKey)
+					.build());
+			entry = bytes.asByteBuffer();
+		} catch (NoSuchKeyException e) {
+			// expired since it was listed, so it is older than any snapshot watermark
+			return 0;
+		}
+		if (entry.remaining() % UuidBatchGenerator.BINARY_LENGTH != 0) {
+			throw new IOException("Truncated dedup journal object: " + journalKey);
+		}
+		long ids = entry.remaining() / UuidBatchGenerator.BINARY_LENGTH;
+		while (entry.hasRemaining()) {
+			filter.put(entry.getLong(), entry.getLong());
+		}
+		return ids;
+	}
+
+	private void appendJournal(long[] ids, int count, Instant createdAt) {
+		ByteBuffer entry = ByteBuffer.allocate(count * UuidBatchGenerator.BINARY_LENGTH);
+		for (int i = 0; i < 2 * count; i++) {
+			entry.putLong(ids[i]);
+		}
+		String journalKey = journalKey(createdAt);
+		s3.putObject(PutObjectRequest.builder()
+						.bucket(bucket)
+						.key(journalKey)
+						.contentType("application/octet-stream")
+						.contentLength((long) entry.capacity())
+						.ifNoneMatch("*")
+						.build(),
+				RequestBody.fromByteBuffer(entry.flip()));
+		journaled.add(journalKey);
+		idsSinceSnapshot += count;
+	}
+
+	/**
+	 * Writes the filter with the last journal object that is more than JOURNAL_GRACE older than
+	 * the batch as the new watermark.
+	 *
+	 * @return false when no journal object is old enough to move the watermark
+	 */
+	private boolean saveSnapshot(Instant createdAt) throws IOException {
+		// below the next listing start, so pruning the set below never lets an object replay twice
+		String newWatermark = journaled.lower(graceCutoff(createdAt));
+		if (newWatermark == null) {
+			return false;
+		}
+		MultipartUploadStream upload = new MultipartUploadStream(s3, bucket, key,
+				"application/octet-stream", null, partSize, concurrency);
+		try {
+			DataOutputStream data = new DataOutputStream(upload);
+			data.writeInt(SNAPSHOT_MAGIC);
+			data.writeUTF(newWatermark);
+			data.flush();
+			filter.writeTo(upload);
+			upload.close();
+		} catch (IOException | RuntimeException e) {
+			upload.abort();
+			throw e;
+		}
+		watermark = newWatermark;
+		journaled.headSet(newWatermark, true).clear();
+		idsSinceSnapshot = 0;
+		lastSnapshotAt = createdAt;
+		return true;
+	}
+
+	/**
+	 * Reads the earlier batches of the confirmation window and counts the candidates found in them.
+	 */
+	private int confirm(Set<UUID> candidates, Instant createdAt, String self) throws IOException {
+		Set<UUID> found = new HashSet<>();
+		Instant hour = createdAt.truncatedTo(ChronoUnit.HOURS);
+		for (int h = 0; h < confirmHours && found.size() < candidates.size(); h++) {
+			for (HourlyManifest.Batch batch : manifest.read(hour.minus(Duration.ofHours(h)))) {
+				if (batch.key.equals(self)) {
+					continue;
+				}
+				try (InputStream in = s3.getObject(GetObjectRequest.builder()
+						.bucket(bucket)
+						.key(batch.key)
+						.build())) {
+					collect(batch.format, in, candidates, found);
+				} catch (NoSuchKeyException e) {
+					// expired or removed since it was listed
+				}
+			}
+		}
+		return found.size();
+	}
+
+	private static void collect(OutputFormat format, InputStream in, Set<UUID> candidates, Set<UUID> found)
+			throws IOException {
+		if (format == OutputFormat.BINARY) {
+			DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+			while (true) {
+				UUID id;
+				try {
+					id = new UUID(data.readLong(), data.readLong());
+				} catch (EOFException e) {
+					return;
+				}
+				if (candidates.contains(id)) {
+					found.add(id);
+				}
+			}
+		}
+		// {"ids": [...]} or {"id": ...} lines; the parser reads consecutive root values as well
+		InputStream source = format == OutputFormat.NDJSON_GZIP ? new GZIPInputStream(in) : in;
+		try (JsonParser parser = JSON_FACTORY.createParser(source)) {
+			JsonToken token;
+			while ((token = parser.nextToken()) != null) {
+				if (token == JsonToken.VALUE_STRING && parser.getTextLength() == UuidBatchGenerator.TEXT_LENGTH) {
+					UUID id = UUID.fromString(parser.getText());
+					if (candidates.contains(id)) {
+						found.add(id);
+					}
+				}
+			}
+		}
+	}
+
+	private static int indexOf(long[] ids, int before, long msb, long lsb) {
+		for (int i = 0; i < before; i++) {
+			if (ids[2 * i] == msb && ids[2 * i + 1] == lsb) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static long longFromEnv(String name, long defaultValue) {
+		String value = System.getenv(name);
+		return value == null || value.isEmpty() ? defaultValue : Long.parseLong(value);
+	}
+
+	public static final class Report {
+		public final int checked;
+		public int probable;
+		public int inBatch;
+		public int acrossRuns;
+		public int unresolved;
+		public long replayed;
+		public boolean snapshotSaved;
+		public String snapshotError;
+		public long filterIds;
+		public long filterBytes;
+		public boolean saturated;
+
+		Report(int checked) {
+			this.checked = checked;
+		}
+
+		public int getConfirmed() {
+			return inBatch + acrossRuns;
+		}
+
+		@Override
+		public String toString() {
+			return "checked=" + checked + ", probable=" + probable + ", confirmed=" + getConfirmed()
+					+ " (in batch " + inBatch + ", across runs " + acrossRuns + "), unresolved=" + unresolved
+					+ ", replayed=" + replayed + (snapshotSaved ? ", snapshot saved" : "")
+					+ (snapshotError != null ? ", snapshot failed: " + snapshotError : "")
+					+ ", filter ids=" + filterIds + ", filter bytes=" + filterBytes
+					+ (saturated ? ", filter saturated" : "");
+		}
+	}
+}
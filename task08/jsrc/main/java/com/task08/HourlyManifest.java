@@ -0,0 +1,136 @@
+package com.task08;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-hour list of the batches written, kept next to the data as a small JSON object:
+ *
+ *   {"batches": [{"key": "...", "ids": 10, "format": "json", "createdAt": "..."}]}
+ *
+ * Entries are appended with read-modify-write guarded by S3 conditional writes (If-Match on the
+ * ETag that was read, If-None-Match: * for a new manifest), so overlapping invocations retry
+ * instead of overwriting each other.
+ *
+ * A manifest that does not exist yet is only reported as NoSuchKey (404) when the role may
+ * s3:ListBucket the bucket; without it S3 answers 403 and the first write of every hour fails.
+ */
+public class HourlyManifest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final int MAX_ATTEMPTS = 5;
+
+	private final S3Client s3;
+	private final String bucket;
+
+	public HourlyManifest(S3Client s3, String bucket) {
+		this.s3 = s3;
+		this.bucket = bucket;
+	}
+
+	/**
+	 * Batches listed for the hour of the given instant, empty when nothing was written then.
+	 */
+	public List<Batch> read(Instant hour) throws IOException {
+		List<Batch> batches = new ArrayList<>();
+		ResponseBytes<GetObjectResponse> current;
+		try {
+			current = s3.getObjectAsBytes(GetObjectRequest.builder()
+					.bucket(bucket)
+					.key(ObjectLayout.manifestKey(hour))
+					.build());
+		} catch (NoSuchKeyException e) {
+			return batches;
+		}
+		for (JsonNode batch : MAPPER.readTree(current.asByteArrayUnsafe()).path("batches")) {
+			batches.add(new Batch(batch.path("key").asText(),
+					OutputFormat.valueOf(batch.path("format").asText().toUpperCase(Locale.ROOT))));
+		}
+		return batches;
+	}
+
+	public void append(Instant createdAt, String batchKey, long ids, OutputFormat format) throws IOException {
+		String manifestKey = ObjectLayout.manifestKey(createdAt);
+		for (int attempt = 1; ; attempt++) {
+			ObjectNode manifest;
+			String eTag;
+			try {
+				ResponseBytes<GetObjectResponse> current = s3.getObjectAsBytes(GetObjectRequest.builder()
+						.bucket(bucket)
+						.key(manifestKey)
+						.build());
+				manifest = (ObjectNode) MAPPER.readTree(current.asByteArrayUnsafe());
+				eTag = current.response().eTag();
+			} catch (NoSuchKeyException e) {
+				manifest = MAPPER.createObjectNode();
+				manifest.putArray("batches");
+				eTag = null;
+			}
+
+			ArrayNode batches = (ArrayNode) manifest.get("batches");
+			batches.addObject()
+					.put("key", batchKey)
+					.put("ids", ids)
+					.put("format", format.name().toLowerCase())
+					.put("createdAt", createdAt.toString());
+
+			byte[] content = MAPPER.writeValueAsBytes(manifest);
+			PutObjectRequest.Builder put = PutObjectRequest.builder()
+					.bucket(bucket)
+					.key(manifestKey)
+					.contentType("application/json")
+					.contentLength((long) content.length);
+			if (eTag == null) {
+				put.ifNoneMatch("*");
+			} else {
+				put.ifMatch(eTag);
+			}
+			try {
+				s3.putObject(put.build(), RequestBody.fromBytes(content));
+				return;
+			} catch (S3Exception e) {
+				// 412: changed since it was read, 409: a concurrent conditional write won
+				if ((e.statusCode() != 412 && e.statusCode() != 409) || attempt == MAX_ATTEMPTS) {
+					throw e;
+				}
+				sleep(attempt);
+			}
+		}
+	}
+
+	private static void sleep(int attempt) throws IOException {
+		try {
+			Thread.sleep(ThreadLocalRandom.current().nextLong(50L << attempt));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while updating the manifest", e);
+		}
+	}
+
+	public static final class Batch {
+		public final String key;
+		public final OutputFormat format;
+
+		Batch(String key, OutputFormat format) {
+			this.key = key;
+			this.format = format;
+		}
+	}
+}
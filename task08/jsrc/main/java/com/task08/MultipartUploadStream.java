@@ -0,0 +1,314 @@
+package com.task08;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * OutputStream that uploads what is written to one S3 object in fixed-size parts.
+ *
+ * Bytes are collected in part buffers from a pool of at most concurrency + 1 buffers, allocated
+ * on demand, so small outputs only ever use a single small buffer. A full buffer
+ * is uploaded as the next part in the background and returned to the pool afterwards, so the
+ * writer blocks once concurrency parts are in flight. Peak memory is about
+ * partSize * (concurrency + 1), whatever the object size.
+ *
+ * Output that never fills the first part is sent as a single PutObject on close. The write can
+ * be made conditional with {@link #ifMatch(String)} / {@link #ifNoneMatch(String)}; S3 then
+ * rejects it with 412 when the object changed in the meantime. Call
+ * {@link #abort()} instead of close when the content is incomplete; a failed part upload aborts
+ * the multipart upload and is rethrown from write or close.
+ */
+public class MultipartUploadStream extends OutputStream {
+
+	/** S3 rejects parts smaller than 5 MiB, except the last one. */
+	public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+	private static final int MAX_CONCURRENCY = 16;
+	private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(MAX_CONCURRENCY, runnable -> {
+		Thread thread = new Thread(runnable, "multipart-upload");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final S3Client s3;
+	private final String bucket;
+	private final String key;
+	private final String contentType;
+	private final String contentEncoding;
+	private final int partSize;
+	private final int maxBuffers;
+	private final BlockingQueue<byte[]> buffers;
+	private int allocatedBuffers;
+	private final List<Future<CompletedPart>> parts = new ArrayList<>();
+
+	private byte[] buffer;
+	private int position;
+	private String uploadId;
+	private boolean closed;
+	private String ifMatch;
+	private String ifNoneMatch;
+	private String eTag;
+
+	/**
+	 * @param contentEncoding e.g. gzip, or null for none
+	 */
+	public MultipartUploadStream(S3Client s3, String bucket, String key, String contentType, String contentEncoding,
+								 int partSize, int concurrency) {
+		if (partSize < MIN_PART_SIZE) {
+			throw new IllegalArgumentException("partSize must be at least " + MIN_PART_SIZE);
+		}
+		if (concurrency < 1 || concurrency > MAX_CONCURRENCY) {
+			throw new IllegalArgumentException("concurrency must be between 1 and " + MAX_CONCURRENCY);
+		}
+		this.s3 = s3;
+		this.bucket = bucket;
+		this.key = key;
+		this.contentType = contentType;
+		this.contentEncoding = contentEncoding;
+		this.partSize = partSize;
+		this.maxBuffers = concurrency + 1;
+		this.buffers = new ArrayBlockingQueue<>(maxBuffers);
+		this.buffer = new byte[INITIAL_BUFFER_SIZE];
+		this.allocatedBuffers = 1;
+	}
+
+	/**
+	 * Only replace the object while it still has this ETag.
+	 */
+	public MultipartUploadStream ifMatch(String eTag) {
+		this.ifMatch = eTag;
+		return this;
+	}
+
+	/**
+	 * "*": only create the object if it does not exist yet.
+	 */
+	public MultipartUploadStream ifNoneMatch(String eTag) {
+		this.ifNoneMatch = eTag;
+		return this;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (position == buffer.length) {
+			nextBuffer();
+		}
+		buffer[position++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int length) throws IOException {
+		while (length > 0) {
+			if (position == buffer.length) {
+				nextBuffer();
+			}
+			int chunk = Math.min(length, buffer.length - position);
+			System.arraycopy(bytes, offset, buffer, position, chunk);
+			position += chunk;
+			offset += chunk;
+			length -= chunk;
+		}
+	}
+
+	/**
+	 * Sends the remaining bytes and completes the upload.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (uploadId == null) {
+			byte[] content = buffer;
+			int length = position;
+			eTag = s3.putObject(PutObjectRequest.builder()
+							.bucket(bucket)
+							.key(key)
+							.contentType(contentType)
+							.contentEncoding(contentEncoding)
+							.contentLength((long) length)
+							.ifMatch(ifMatch)
+							.ifNoneMatch(ifNoneMatch)
+							.build(),
+					body(content, length)).eTag();
+			return;
+		}
+
+		if (position > 0) {
+			submitPart();
+		}
+		List<CompletedPart> completed = new ArrayList<>(parts.size());
+		try {
+			for (Future<CompletedPart> part : parts) {
+				completed.add(await(part));
+			}
+		} catch (IOException e) {
+			abortUpload();
+			throw e;
+		}
+		try {
+			eTag = s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+					.bucket(bucket)
+					.key(key)
+					.uploadId(uploadId)
+					.multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+					.ifMatch(ifMatch)
+					.ifNoneMatch(ifNoneMatch)
+					.build()).eTag();
+		} catch (RuntimeException e) {
+			abortUpload();
+			throw e;
+		}
+	}
+
+	/**
+	 * Drops everything written so far; nothing becomes visible in the bucket.
+	 */
+	public void abort() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (uploadId != null) {
+			for (Future<CompletedPart> part : parts) {
+				part.cancel(true);
+			}
+			abortUpload();
+		}
+	}
+
+	/**
+	 * ETag of the stored object, once closed.
+	 */
+	public String getETag() {
+		return eTag;
+	}
+
+	public int getPartCount() {
+		return parts.size();
+	}
+
+	/**
+	 * The first buffer grows until it reaches the part size; after that every full buffer is
+	 * uploaded as a part.
+	 */
+	private void nextBuffer() throws IOException {
+		if (buffer.length < partSize) {
+			buffer = Arrays.copyOf(buffer, Math.min(partSize, buffer.length * 2));
+			return;
+		}
+		flushPart();
+	}
+
+	private void flushPart() throws IOException {
+		if (uploadId == null) {
+			uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder()
+					.bucket(bucket)
+					.key(key)
+					.contentType(contentType)
+					.contentEncoding(contentEncoding)
+					.build()).uploadId();
+		}
+		submitPart();
+		try {
+			byte[] free = buffers.poll();
+			if (free == null && allocatedBuffers < maxBuffers) {
+				free = new byte[partSize];
+				allocatedBuffers++;
+			}
+			// blocks while all other buffers are still being uploaded
+			buffer = free != null ? free : buffers.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			abort();
+			throw new IOException("Interrupted while waiting for a part buffer", e);
+		}
+		position = 0;
+		failFast();
+	}
+
+	private void submitPart() {
+		byte[] content = buffer;
+		int length = position;
+		int partNumber = parts.size() + 1;
+		parts.add(EXECUTOR.submit(() -> {
+			try {
+				String partETag = s3.uploadPart(UploadPartRequest.builder()
+						.bucket(bucket)
+						.key(key)
+						.uploadId(uploadId)
+						.partNumber(partNumber)
+						.contentLength((long) length)
+						.build(), body(content, length)).eTag();
+				return CompletedPart.builder().partNumber(partNumber).eTag(partETag).build();
+			} finally {
+				buffers.add(content);
+			}
+		}));
+	}
+
+	/**
+	 * Surfaces a failed part while the writer is still producing, instead of at close.
+	 */
+	private void failFast() throws IOException {
+		for (Future<CompletedPart> part : parts) {
+			if (part.isDone()) {
+				try {
+					await(part);
+				} catch (IOException e) {
+					abort();
+					throw e;
+				}
+			}
+		}
+	}
+
+	private void abortUpload() {
+		s3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+				.bucket(bucket)
+				.key(key)
+				.uploadId(uploadId)
+				.build());
+	}
+
+	private static CompletedPart await(Future<CompletedPart> part) throws IOException {
+		try {
+			return part.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while uploading parts", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Part upload failed: " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	/**
+	 * Streams the buffer without the copy RequestBody.fromBytes would make; the provider can be
+	 * called again when the SDK retries.
+	 */
+	private RequestBody body(byte[] content, int length) {
+		return RequestBody.fromContentProvider(() -> new ByteArrayInputStream(content, 0, length), length, contentType);
+	}
+}
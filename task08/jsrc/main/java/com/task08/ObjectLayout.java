@@ -0,0 +1,39 @@
+package com.task08;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Object keys of the UUID batches:
+ *
+ *   {hash}/dt={yyyy-MM-dd}/hour={HH}/{timestamp}{extension}
+ *   manifests/dt={yyyy-MM-dd}/hour={HH}/manifest.json
+ *
+ * The 4 hex digit hash of the batch timestamp spreads consecutive batches over many key
+ * prefixes, so they do not share one S3 partition. Readers find the batches of an hour in its
+ * manifest instead of listing every prefix.
+ */
+public final class ObjectLayout {
+
+	private static final DateTimeFormatter PARTITION = DateTimeFormatter.ofPattern("'dt='yyyy-MM-dd'/hour='HH")
+			.withZone(ZoneOffset.UTC);
+
+	private ObjectLayout() {
+	}
+
+	public static String batchKey(Instant createdAt, OutputFormat format) {
+		String timestamp = createdAt.toString();
+		return hashPrefix(timestamp) + "/" + PARTITION.format(createdAt) + "/" + timestamp + format.getExtension();
+	}
+
+	public static String manifestKey(Instant createdAt) {
+		return "manifests/" + PARTITION.format(createdAt) + "/manifest.json";
+	}
+
+	static String hashPrefix(String value) {
+		int hash = value.hashCode() * 0x9e3779b9;
+		hash ^= hash >>> 16;
+		return String.format("%04x", hash & 0xffff);
+	}
+}
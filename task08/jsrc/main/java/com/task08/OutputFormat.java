@@ -0,0 +1,42 @@
+package com.task08;
+
+import java.util.Locale;
+
+/**
+ * Object formats of a UUID batch.
+ * - json: {"ids": [...]}, the original layout.
+ * - ndjson_gzip: one {"id": "..."} line per id, gzip compressed.
+ * - binary: 16 big-endian bytes per id, no header; the id count is the object size / 16.
+ */
+public enum OutputFormat {
+	JSON(".json", "application/json", null),
+	NDJSON_GZIP(".ndjson.gz", "application/x-ndjson", "gzip"),
+	BINARY(".bin", "application/octet-stream", null);
+
+	private final String extension;
+	private final String contentType;
+	private final String contentEncoding;
+
+	OutputFormat(String extension, String contentType, String contentEncoding) {
+		this.extension = extension;
+		this.contentType = contentType;
+		this.contentEncoding = contentEncoding;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getContentEncoding() {
+		return contentEncoding;
+	}
+
+	public static OutputFormat fromEnv() {
+		String value = System.getenv("output_format");
+		return value == null || value.isEmpty() ? JSON : valueOf(value.toUpperCase(Locale.ROOT));
+	}
+}
@@ -0,0 +1,224 @@
+package com.task08;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scalable Bloom filter over 128 bit ids (Almeida et al.), with the bit arrays held off-heap in
+ * direct ByteBuffers.
+ *
+ * Ids go into the newest layer; once it holds its capacity a layer with twice the capacity and
+ * half the false positive rate is added, which keeps the overall rate below 2 * the rate of the
+ * first layer however many ids are added. Layers stop being added at maxBytes: the last layer
+ * then keeps filling and its false positive rate rises, see {@link #isSaturated()}.
+ *
+ * Each check costs k word reads per layer, whatever the number of ids stored.
+ *
+ * Binary layout, big-endian: int MAGIC, int layer count, then per layer long capacity,
+ * long count, int hashes, int bit array bytes, followed by the bit array.
+ */
+public final class ScalableBloomFilter {
+
+	private static final int MAGIC = 0x55424631; // "UBF1"
+	private static final int LAYER_HEADER_BYTES = 8 + 8 + 4 + 4;
+	private static final int MAX_LAYER_BYTES = Integer.MAX_VALUE & ~7;
+	private static final double LN2 = Math.log(2);
+
+	private final long initialCapacity;
+	private final double falsePositiveRate;
+	private final long maxBytes;
+	private final List<Layer> layers = new ArrayList<>();
+
+	public ScalableBloomFilter(long initialCapacity, double falsePositiveRate, long maxBytes) {
+		if (initialCapacity < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("capacity must be positive and the false positive rate in (0, 1)");
+		}
+		this.initialCapacity = initialCapacity;
+		this.falsePositiveRate = falsePositiveRate;
+		this.maxBytes = maxBytes;
+	}
+
+	public boolean mightContain(long msb, long lsb) {
+		long h1 = mix(msb ^ mix(lsb));
+		long h2 = mix(lsb + 0x9e3779b97f4a7c15L) | 1;
+		for (Layer layer : layers) {
+			if (layer.contains(h1, h2)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return false when the id was probably present already
+	 */
+	public boolean put(long msb, long lsb) {
+		long h1 = mix(msb ^ mix(lsb));
+		long h2 = mix(lsb + 0x9e3779b97f4a7c15L) | 1;
+		for (Layer layer : layers) {
+			if (layer.contains(h1, h2)) {
+				return false;
+			}
+		}
+		writableLayer().add(h1, h2);
+		return true;
+	}
+
+	public long size() {
+		long count = 0;
+		for (Layer layer : layers) {
+			count += layer.count;
+		}
+		return count;
+	}
+
+	public long sizeInBytes() {
+		long bytes = 0;
+		for (Layer layer : layers) {
+			bytes += layer.bits.capacity();
+		}
+		return bytes;
+	}
+
+	public int getLayerCount() {
+		return layers.size();
+	}
+
+	/**
+	 * True once the size limit prevented a new layer; the false positive rate is above the
+	 * configured one from then on.
+	 */
+	public boolean isSaturated() {
+		Layer last = layers.isEmpty() ? null : layers.get(layers.size() - 1);
+		return last != null && last.count > last.capacity;
+	}
+
+	public long serializedSize() {
+		return 8 + layers.size() * (long) LAYER_HEADER_BYTES + sizeInBytes();
+	}
+
+	public void writeTo(OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeInt(layers.size());
+		WritableByteChannel channel = Channels.newChannel(out);
+		for (Layer layer : layers) {
+			data.writeLong(layer.capacity);
+			data.writeLong(layer.count);
+			data.writeInt(layer.hashes);
+			data.writeInt(layer.bits.capacity());
+			ByteBuffer bits = layer.bits.duplicate();
+			bits.clear();
+			while (bits.hasRemaining()) {
+				channel.write(bits);
+			}
+		}
+	}
+
+	/**
+	 * Reads a filter written by {@link #writeTo(OutputStream)}; bit arrays are read straight into
+	 * direct buffers. The growth parameters are not stored, they come from the caller.
+	 */
+	public static ScalableBloomFilter readFrom(InputStream in, long initialCapacity, double falsePositiveRate,
+											   long maxBytes) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC) {
+			throw new IOException("Not a Bloom filter object");
+		}
+		ScalableBloomFilter filter = new ScalableBloomFilter(initialCapacity, falsePositiveRate, maxBytes);
+		int layerCount = data.readInt();
+		ReadableByteChannel channel = Channels.newChannel(in);
+		for (int i = 0; i < layerCount; i++) {
+			long capacity = data.readLong();
+			long count = data.readLong();
+			int hashes = data.readInt();
+			int bytes = data.readInt();
+			ByteBuffer bits = ByteBuffer.allocateDirect(bytes).order(ByteOrder.BIG_ENDIAN);
+			while (bits.hasRemaining()) {
+				if (channel.read(bits) < 0) {
+					throw new EOFException("Bloom filter object is truncated");
+				}
+			}
+			filter.layers.add(new Layer(capacity, count, hashes, bits));
+		}
+		return filter;
+	}
+
+	private Layer writableLayer() {
+		Layer last = layers.isEmpty() ? null : layers.get(layers.size() - 1);
+		if (last != null && last.count < last.capacity) {
+			return last;
+		}
+		int index = layers.size();
+		long capacity = index == 0 ? initialCapacity : last.capacity * 2;
+		// halves per layer, so the rates sum to at most falsePositiveRate
+		double rate = falsePositiveRate / 2 / Math.pow(2, index);
+		long bits = (long) Math.ceil(-capacity * Math.log(rate) / (LN2 * LN2));
+		long bytes = Math.min(MAX_LAYER_BYTES, ((bits + 63) / 64) * 8);
+		if (last != null && sizeInBytes() + bytes > maxBytes) {
+			return last;
+		}
+		int hashes = Math.max(1, (int) Math.round((double) bytes * 8 / capacity * LN2));
+		Layer layer = new Layer(capacity, 0, hashes, ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.BIG_ENDIAN));
+		layers.add(layer);
+		return layer;
+	}
+
+	/** murmur3 fmix64: v7 ids share their timestamp bits, so the halves are mixed before use. */
+	private static long mix(long value) {
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb9fe1a85ec53L;
+		value ^= value >>> 33;
+		return value;
+	}
+
+	private static final class Layer {
+		final long capacity;
+		long count;
+		final int hashes;
+		final ByteBuffer bits;
+		final long bitCount;
+
+		Layer(long capacity, long count, int hashes, ByteBuffer bits) {
+			this.capacity = capacity;
+			this.count = count;
+			this.hashes = hashes;
+			this.bits = bits;
+			this.bitCount = (long) bits.capacity() * 8;
+		}
+
+		/** Bit positions h1 + i * h2 (Kirsch-Mitzenmacher double hashing). */
+		boolean contains(long h1, long h2) {
+			for (int i = 0; i < hashes; i++) {
+				long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+				int word = (int) (bit >>> 6) << 3;
+				if ((bits.getLong(word) & (1L << bit)) == 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void add(long h1, long h2) {
+			for (int i = 0; i < hashes; i++) {
+				long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+				int word = (int) (bit >>> 6) << 3;
+				bits.putLong(word, bits.getLong(word) | (1L << bit));
+			}
+			count++;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package com.task08;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates UUIDs straight into caller-supplied byte buffers, either as the 36 byte canonical
+ * text or as 16 raw bytes, without creating UUID or String objects.
+ *
+ * - {@link Rng#SECURE}: bytes from a SecureRandom, drawn in blocks to amortize its lock.
+ * - {@link Rng#FAST}: two SplittableRandoms, one for the high and one for the low half of the
+ *   ids, each seeded from SecureRandom. A single 64 bit seed would make ids only as unique as
+ *   64 bits of state: the streams of two containers could overlap and repeat a run of ids. With
+ *   two independent seeds both streams must line up at once. Unpredictable enough for ids used
+ *   as keys, not for tokens or secrets.
+ * - {@link Version#V7}: time-ordered, 48 bit unix millis followed by a 12 bit counter that keeps
+ *   ids monotonic within the same millisecond (RFC 9562, method 1).
+ *
+ * Instances are not thread-safe; use one per thread.
+ */
+public final class UuidBatchGenerator {
+
+	public static final int TEXT_LENGTH = 36;
+	public static final int BINARY_LENGTH = 16;
+
+	private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+	private static final int SECURE_BLOCK = 64 * BINARY_LENGTH;
+	private static final int MAX_COUNTER = 0xfff;
+	private static final SecureRandom SEED = new SecureRandom();
+
+	public enum Rng {
+		SECURE, FAST;
+
+		public static Rng fromEnv() {
+			String value = System.getenv("uuid_rng");
+			return value == null || value.isEmpty() ? SECURE : valueOf(value.toUpperCase(Locale.ROOT));
+		}
+	}
+
+	public enum Version {
+		V4, V7;
+
+		public static Version fromEnv() {
+			String value = System.getenv("uuid_version");
+			return value == null || value.isEmpty() ? V4 : valueOf(value.toUpperCase(Locale.ROOT));
+		}
+	}
+
+	private final Rng rng;
+	private final Version version;
+	private final SecureRandom secure;
+	private final SplittableRandom fastHigh;
+	private final SplittableRandom fastLow;
+	private final byte[] block;
+	private int blockPosition;
+
+	private long lastMillis = -1;
+	private int counter;
+
+	private long msb;
+	private long lsb;
+
+	public UuidBatchGenerator(Rng rng, Version version) {
+		this.rng = rng;
+		this.version = version;
+		if (rng == Rng.SECURE) {
+			secure = new SecureRandom();
+			fastHigh = null;
+			fastLow = null;
+			block = new byte[SECURE_BLOCK];
+			blockPosition = SECURE_BLOCK;
+		} else {
+			secure = null;
+			fastHigh = new SplittableRandom(SEED.nextLong());
+			fastLow = new SplittableRandom(SEED.nextLong());
+			block = null;
+		}
+	}
+
+	public static UuidBatchGenerator fromEnv() {
+		return new UuidBatchGenerator(Rng.fromEnv(), Version.fromEnv());
+	}
+
+	public Rng getRng() {
+		return rng;
+	}
+
+	public Version getVersion() {
+		return version;
+	}
+
+	/**
+	 * Writes the next id as lower-case canonical text, TEXT_LENGTH bytes from offset.
+	 */
+	public void nextText(byte[] buffer, int offset) {
+		next();
+		hex(msb >>> 32, 8, buffer, offset);
+		buffer[offset + 8] = '-';
+		hex(msb >>> 16, 4, buffer, offset + 9);
+		buffer[offset + 13] = '-';
+		hex(msb, 4, buffer, offset + 14);
+		buffer[offset + 18] = '-';
+		hex(lsb >>> 48, 4, buffer, offset + 19);
+		buffer[offset + 23] = '-';
+		hex(lsb, 12, buffer, offset + 24);
+	}
+
+	/**
+	 * Writes the next id as 16 big-endian bytes from offset.
+	 */
+	public void nextBinary(byte[] buffer, int offset) {
+		next();
+		for (int i = 0; i < 8; i++) {
+			buffer[offset + i] = (byte) (msb >>> (56 - 8 * i));
+			buffer[offset + 8 + i] = (byte) (lsb >>> (56 - 8 * i));
+		}
+	}
+
+	/**
+	 * High 64 bits of the id written last, for callers that also need it as a number.
+	 */
+	public long getMostSignificantBits() {
+		return msb;
+	}
+
+	public long getLeastSignificantBits() {
+		return lsb;
+	}
+
+	private void next() {
+		if (version == Version.V7) {
+			long millis = nextMillis();
+			msb = (millis << 16) | 0x7000L | counter;
+		} else {
+			msb = (randomHigh() & ~0xf000L) | 0x4000L;
+		}
+		lsb = (randomLow() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+	}
+
+	/**
+	 * Timestamp for a v7 id. A new millisecond starts the counter at a random value in its lower
+	 * half; an exhausted counter borrows the next millisecond instead of going backwards.
+	 */
+	private long nextMillis() {
+		long now = System.currentTimeMillis();
+		if (now > lastMillis) {
+			lastMillis = now;
+			counter = (int) (randomHigh() & (MAX_COUNTER >> 1));
+		} else if (counter < MAX_COUNTER) {
+			counter++;
+		} else {
+			lastMillis++;
+			counter = 0;
+		}
+		return lastMillis;
+	}
+
+	private long randomHigh() {
+		return fastHigh != null ? fastHigh.nextLong() : randomSecure();
+	}
+
+	private long randomLow() {
+		return fastLow != null ? fastLow.nextLong() : randomSecure();
+	}
+
+	private long randomSecure() {
+		if (blockPosition == block.length) {
+			secure.nextBytes(block);
+			blockPosition = 0;
+		}
+		long value = 0;
+		for (int i = 0; i < 8; i++) {
+			value = (value << 8) | (block[blockPosition++] & 0xff);
+		}
+		return value;
+	}
+
+	private static void hex(long value, int digits, byte[] buffer, int offset) {
+		for (int i = digits - 1; i >= 0; i--) {
+			buffer[offset + i] = HEX[(int) (value & 0xf)];
+			value >>>= 4;
+		}
+	}
+}
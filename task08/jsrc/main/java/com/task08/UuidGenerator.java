@@ -2,22 +2,24 @@ package com.task08;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.AmazonS3ClientBuilder;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.syndicate.deployment.annotations.environment.EnvironmentVariable;
 import com.syndicate.deployment.annotations.environment.EnvironmentVariables;
 import com.syndicate.deployment.annotations.events.RuleEventSource;
 import com.syndicate.deployment.annotations.lambda.LambdaHandler;
 import com.syndicate.deployment.model.RetentionSetting;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
 
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
 
 
 @LambdaHandler(
@@ -32,46 +34,187 @@ import java.util.stream.IntStream;
 )
 @EnvironmentVariables(value = {
 		@EnvironmentVariable(key = "region", value = "${region}"),
-		@EnvironmentVariable(key = "bucket", value = "${target_bucket}")})
+		@EnvironmentVariable(key = "bucket", value = "${target_bucket}"),
+		@EnvironmentVariable(key = "batch_size", value = "10"),
+		@EnvironmentVariable(key = "uuid_rng", value = "secure"),
+		@EnvironmentVariable(key = "uuid_version", value = "v4"),
+		@EnvironmentVariable(key = "part_size_mb", value = "8"),
+		@EnvironmentVariable(key = "upload_concurrency", value = "4"),
+		@EnvironmentVariable(key = "output_format", value = "json"),
+		@EnvironmentVariable(key = "dedup_enabled", value = "false")})
 public class UuidGenerator implements RequestHandler<Object, String> {
 
 	private static final String BUCKET_NAME = System.getenv("bucket");
+	private static final int DEFAULT_BATCH_SIZE = 10;
+	private static final int DEFAULT_PART_SIZE_MB = 8;
+	private static final int DEFAULT_UPLOAD_CONCURRENCY = 4;
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+	private static final int BINARY_CHUNK_IDS = 256;
+	private static final byte[] NDJSON_PREFIX = "{\"id\":\"".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] NDJSON_SUFFIX = "\"}\n".getBytes(StandardCharsets.US_ASCII);
+
+	// the upload stream is completed or aborted explicitly, never by closing the generator
+	private static final JsonFactory JSON_FACTORY = new JsonFactory()
+			.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+	private final int batchSize = intFromEnv("batch_size", DEFAULT_BATCH_SIZE);
+	private final int partSize = intFromEnv("part_size_mb", DEFAULT_PART_SIZE_MB) * 1024 * 1024;
+	private final int uploadConcurrency = intFromEnv("upload_concurrency", DEFAULT_UPLOAD_CONCURRENCY);
+	private final UuidBatchGenerator generator = UuidBatchGenerator.fromEnv();
+	private final OutputFormat format = OutputFormat.fromEnv();
+	private final HourlyManifest manifest = new HourlyManifest(S3Holder.CLIENT, BUCKET_NAME);
+	private final DedupIndex dedup = DedupIndex.fromEnv(S3Holder.CLIENT, BUCKET_NAME, manifest, partSize, uploadConcurrency);
 
 	@Override
 	public String handleRequest(Object input, Context context) {
-		AmazonS3 s3Client = AmazonS3ClientBuilder.defaultClient();
-		ObjectMapper objectMapper = new ObjectMapper();
-
 		// 1️⃣ Отримуємо поточний час у форматі ISO 8601 (UTC)
-		String timestamp = Instant.now().toString(); // "2024-01-01T00:00:00.000Z"
+		Instant createdAt = Instant.now();
+		String key = ObjectLayout.batchKey(createdAt, format);
 
-		// 2️⃣ Генеруємо 10 випадкових UUID
-		List<String> uuids = IntStream.range(0, 10)
-				.mapToObj(i -> UUID.randomUUID().toString())
-				.collect(Collectors.toList());
+		// 2️⃣ + 3️⃣ + 4️⃣ Генеруємо batch_size UUID одразу у вибраному форматі і пишемо їх частинами у S3
+		MultipartUploadStream upload = new MultipartUploadStream(S3Holder.CLIENT, BUCKET_NAME, key,
+				format.getContentType(), format.getContentEncoding(), partSize, uploadConcurrency);
+		// msb, lsb pairs of the batch, only kept for the dedup check
+		long[] ids = dedup != null ? new long[2 * batchSize] : null;
+		try {
+			writeBatch(upload, ids);
+			upload.close();
+		} catch (IOException | RuntimeException e) {
+			upload.abort();
+			context.getLogger().log("UUID upload error: " + e.getMessage());
+			return "Error creating " + format.name().toLowerCase();
+		}
 
-		// 3️⃣ Формуємо JSON-структуру
-		String jsonContent;
+		// the batch is already stored; a failed manifest update only leaves it unlisted
 		try {
-			jsonContent = objectMapper.writeValueAsString(new UuidList(uuids));
-		} catch (Exception e) {
-			context.getLogger().log("JSON serialization error: " + e.getMessage());
-			return "Error creating JSON";
+			manifest.append(createdAt, key, batchSize, format);
+		} catch (IOException | RuntimeException e) {
+			context.getLogger().log("Manifest update error for " + key + ": " + e.getMessage());
+			return "File " + key + " created in bucket " + BUCKET_NAME + ", manifest not updated";
 		}
 
-		// 4️⃣ Записуємо у S3
-		s3Client.putObject(BUCKET_NAME, timestamp, new ByteArrayInputStream(jsonContent.getBytes(StandardCharsets.UTF_8)), null);
+		context.getLogger().log("UUIDs saved to S3: " + key);
+		if (dedup == null) {
+			return "File " + key + " successfully created in bucket " + BUCKET_NAME;
+		}
 
-		context.getLogger().log("UUIDs saved to S3: " + timestamp);
-		return "File " + timestamp + " successfully created in bucket " + BUCKET_NAME;
+		try {
+			DedupIndex.Report report = dedup.check(ids, batchSize, createdAt, key);
+			context.getLogger().log("UUID dedup: " + report);
+			if (report.getConfirmed() > 0) {
+				return "File " + key + " created in bucket " + BUCKET_NAME + ", duplicate ids: " + report.getConfirmed();
+			}
+		} catch (IOException | RuntimeException e) {
+			context.getLogger().log("UUID dedup error: " + e.getMessage());
+		}
+		return "File " + key + " successfully created in bucket " + BUCKET_NAME;
 	}
 
-	// Клас для збереження UUID у форматі JSON
-	static class UuidList {
-		public List<String> ids;
+	/**
+	 * @param ids receives every id as an msb, lsb pair, or null
+	 */
+	private void writeBatch(OutputStream out, long[] ids) throws IOException {
+		switch (format) {
+			case NDJSON_GZIP:
+				writeNdjsonGzip(out, ids);
+				break;
+			case BINARY:
+				writeBinary(out, ids);
+				break;
+			default:
+				writeJson(out, ids);
+		}
+	}
 
-		public UuidList(List<String> ids) {
-			this.ids = ids;
+	/**
+	 * Ids are encoded by the generator into one reused buffer and copied into the JSON output as
+	 * UTF-8 bytes; no UUID or String is created per id, and the output is never held as a whole.
+	 */
+	private void writeJson(OutputStream out, long[] ids) throws IOException {
+		byte[] id = new byte[UuidBatchGenerator.TEXT_LENGTH];
+		try (JsonGenerator json = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+			json.writeStartObject();
+			json.writeArrayFieldStart("ids");
+			for (int i = 0; i < batchSize; i++) {
+				generator.nextText(id, 0);
+				record(ids, i);
+				json.writeUTF8String(id, 0, id.length);
+			}
+			json.writeEndArray();
+			json.writeEndObject();
 		}
 	}
+
+	/**
+	 * One {"id":"..."} line per id, built in a reused line buffer. The gzip stream is finished,
+	 * not closed, so the upload stays open for close or abort.
+	 */
+	private void writeNdjsonGzip(OutputStream out, long[] ids) throws IOException {
+		byte[] line = new byte[NDJSON_PREFIX.length + UuidBatchGenerator.TEXT_LENGTH + NDJSON_SUFFIX.length];
+		System.arraycopy(NDJSON_PREFIX, 0, line, 0, NDJSON_PREFIX.length);
+		System.arraycopy(NDJSON_SUFFIX, 0, line, line.length - NDJSON_SUFFIX.length, NDJSON_SUFFIX.length);
+		GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+		for (int i = 0; i < batchSize; i++) {
+			generator.nextText(line, NDJSON_PREFIX.length);
+			record(ids, i);
+			gzip.write(line, 0, line.length);
+		}
+		gzip.finish();
+	}
+
+	/**
+	 * 16 bytes per id, generated a chunk at a time into a reused buffer.
+	 */
+	private void writeBinary(OutputStream out, long[] ids) throws IOException {
+		byte[] chunk = new byte[BINARY_CHUNK_IDS * UuidBatchGenerator.BINARY_LENGTH];
+		int written = 0;
+		while (written < batchSize) {
+			int chunkIds = Math.min(BINARY_CHUNK_IDS, batchSize - written);
+			for (int i = 0; i < chunkIds; i++) {
+				generator.nextBinary(chunk, i * UuidBatchGenerator.BINARY_LENGTH);
+				record(ids, written + i);
+			}
+			out.write(chunk, 0, chunkIds * UuidBatchGenerator.BINARY_LENGTH);
+			written += chunkIds;
+		}
+	}
+
+	private void record(long[] ids, int index) {
+		if (ids != null) {
+			ids[2 * index] = generator.getMostSignificantBits();
+			ids[2 * index + 1] = generator.getLeastSignificantBits();
+		}
+	}
+
+	private static int intFromEnv(String name, int defaultValue) {
+		String value = System.getenv(name);
+		return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+	}
+
+	static S3Client createS3Client() {
+		return createS3Client(System.getenv("region"), System.getenv("s3_endpoint"));
+	}
+
+	/**
+	 * A null region leaves it to the SDK region chain. The endpoint points the client at a local
+	 * S3 stand-in (MinIO, LocalStack); such endpoints need path-style addressing.
+	 */
+	static S3Client createS3Client(String region, String endpoint) {
+		S3ClientBuilder builder = S3Client.builder();
+		if (region != null && !region.isEmpty()) {
+			builder.region(Region.of(region));
+		}
+		if (endpoint != null && !endpoint.isEmpty()) {
+			builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Container-scoped: built once per cold start, by the first handler instance, and reused by
+	 * every scheduled tick. Loading UuidGenerator alone does not create it.
+	 */
+	private static final class S3Holder {
+		static final S3Client CLIENT = createS3Client();
+	}
 }
@@ -0,0 +1,270 @@
+package com.task08;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DedupIndexTest {
+
+	private static final String SNAPSHOT_KEY = "dedup/uuid-bloom.bin";
+	private static final String JOURNAL_PREFIX = "dedup/journal/";
+	private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+	private final FakeS3 s3 = new FakeS3();
+
+	@Test
+	void ticksBelowTheThresholdsOnlyWriteTheJournal() throws IOException {
+		DedupIndex index = index(1000, 3600);
+
+		for (int tick = 0; tick < 3; tick++) {
+			DedupIndex.Report report = index.check(batch(tick, 10), 10, START.plus(Duration.ofMinutes(tick)), "self");
+			assertFalse(report.snapshotSaved);
+			assertEquals(0, report.probable);
+		}
+
+		assertFalse(s3.objects.containsKey(SNAPSHOT_KEY));
+		List<String> journal = journalKeys();
+		assertEquals(3, journal.size());
+		for (String key : journal) {
+			assertEquals(10 * UuidBatchGenerator.BINARY_LENGTH, s3.objects.get(key).length);
+		}
+	}
+
+	@Test
+	void warmContainerDoesNotReplayItsOwnBatches() throws IOException {
+		DedupIndex index = index(1000, 3600);
+
+		index.check(batch(1, 10), 10, START, "self");
+		DedupIndex.Report report = index.check(batch(2, 10), 10, START.plusSeconds(60), "self");
+
+		assertEquals(0, report.replayed);
+		assertEquals(20, report.filterIds);
+	}
+
+	@Test
+	void newContainerReplaysTheJournalOfOthers() throws IOException {
+		long[] first = batch(1, 10);
+		index(1000, 3600).check(first, 10, START, "first");
+
+		long[] second = batch(2, 10);
+		second[0] = first[6];
+		second[1] = first[7];
+		DedupIndex.Report report = index(1000, 3600).check(second, 10, START.plusSeconds(60), "second");
+
+		assertEquals(10, report.replayed);
+		assertEquals(1, report.probable);
+		// the manifests list no batches, so the hit cannot be confirmed
+		assertEquals(1, report.unresolved);
+		assertNull(s3.lastStartAfter);
+	}
+
+	@Test
+	void snapshotMovesTheWatermarkAndLoadersReplayOnlyAfterIt() throws IOException {
+		long[] first = batch(1, 10);
+		long[] second = batch(2, 10);
+		DedupIndex writer = index(20, 3600);
+		writer.check(first, 10, START, "first");
+		DedupIndex.Report saved = writer.check(second, 10, START.plus(Duration.ofMinutes(10)), "second");
+
+		assertTrue(saved.snapshotSaved, saved.toString());
+		String firstEntry = journalKeys().stream()
+				.filter(key -> key.startsWith(JOURNAL_PREFIX + String.format("%015d", START.toEpochMilli())))
+				.findFirst().orElseThrow();
+
+		long[] third = batch(3, 10);
+		third[0] = first[0];
+		third[1] = first[1];
+		third[2] = second[0];
+		third[3] = second[1];
+		DedupIndex.Report report = index(20, 3600).check(third, 10, START.plus(Duration.ofMinutes(11)), "third");
+
+		assertEquals(firstEntry, s3.lastStartAfter);
+		// the first batch comes from the snapshot, only the second one is replayed
+		assertEquals(10, report.replayed);
+		assertEquals(2, report.probable);
+	}
+
+	@Test
+	void snapshotWaitsForJournalObjectsOlderThanTheGrace() throws IOException {
+		DedupIndex index = index(10, 3600);
+
+		DedupIndex.Report report = index.check(batch(1, 10), 10, START, "self");
+
+		assertFalse(report.snapshotSaved);
+		assertFalse(s3.objects.containsKey(SNAPSHOT_KEY));
+		assertFalse(index.check(batch(2, 10), 10, START.plus(DedupIndex.JOURNAL_GRACE), "self").snapshotSaved);
+		assertTrue(index.check(batch(3, 10), 10, START.plus(DedupIndex.JOURNAL_GRACE).plusMillis(1), "self")
+				.snapshotSaved);
+	}
+
+	@Test
+	void snapshotIsSavedOnceTheIntervalPassed() throws IOException {
+		DedupIndex index = index(1_000_000, 600);
+
+		assertFalse(index.check(batch(1, 10), 10, START, "self").snapshotSaved);
+		assertTrue(index.check(batch(2, 10), 10, START.plus(Duration.ofMinutes(10)), "self").snapshotSaved);
+		assertTrue(s3.objects.containsKey(SNAPSHOT_KEY));
+	}
+
+	@Test
+	void warmContainerReplaysAJournalObjectWrittenLateWithAnEarlierName() throws IOException {
+		DedupIndex index = index(1000, 3600);
+		index.check(batch(1, 10), 10, START, "self");
+		index.check(batch(2, 10), 10, START.plus(Duration.ofMinutes(2)), "self");
+		index.check(batch(3, 10), 10, START.plus(Duration.ofMinutes(3)), "self");
+
+		// another container's batch of minute 1 lands after this container listed minutes 2 and 3
+		long[] late = batch(4, 10);
+		ByteBuffer entry = ByteBuffer.allocate(10 * UuidBatchGenerator.BINARY_LENGTH);
+		for (long id : late) {
+			entry.putLong(id);
+		}
+		s3.objects.put(index.journalKey(START.plus(Duration.ofMinutes(1))), entry.array());
+
+		long[] next = batch(5, 10);
+		next[0] = late[0];
+		next[1] = late[1];
+		DedupIndex.Report report = index.check(next, 10, START.plus(Duration.ofMinutes(4)), "self");
+
+		assertEquals(10, report.replayed);
+		assertEquals(1, report.probable);
+	}
+
+	@Test
+	void failedSnapshotKeepsTheBatchInTheJournal() throws IOException {
+		DedupIndex index = index(20, 3600);
+		index.check(batch(1, 10), 10, START, "self");
+		s3.failingKey = SNAPSHOT_KEY;
+
+		DedupIndex.Report report = index.check(batch(2, 10), 10, START.plus(Duration.ofMinutes(10)), "self");
+
+		assertFalse(report.snapshotSaved);
+		assertTrue(report.snapshotError.contains("rejected"), report.snapshotError);
+		assertEquals(2, journalKeys().size());
+	}
+
+	@Test
+	void duplicateInsideTheBatchIsConfirmed() throws IOException {
+		long[] ids = batch(1, 10);
+		ids[18] = ids[4];
+		ids[19] = ids[5];
+
+		DedupIndex.Report report = index(1000, 3600).check(ids, 10, START, "self");
+
+		assertEquals(1, report.probable);
+		assertEquals(1, report.inBatch);
+		assertEquals(1, report.getConfirmed());
+	}
+
+	private DedupIndex index(long snapshotIds, long snapshotSeconds) {
+		return new DedupIndex(s3, "bucket", SNAPSHOT_KEY, new HourlyManifest(s3, "bucket"), 1000, 0.0001,
+				1024 * 1024, 2, MultipartUploadStream.MIN_PART_SIZE, 1, JOURNAL_PREFIX, snapshotIds, snapshotSeconds);
+	}
+
+	private List<String> journalKeys() {
+		return s3.objects.keySet().stream().filter(key -> key.startsWith(JOURNAL_PREFIX)).collect(Collectors.toList());
+	}
+
+	private static long[] batch(long seed, int count) {
+		SplittableRandom random = new SplittableRandom(seed);
+		long[] ids = new long[2 * count];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = random.nextLong();
+		}
+		return ids;
+	}
+
+	private static final class FakeS3 implements S3Client {
+
+		final NavigableMap<String, byte[]> objects = new TreeMap<>();
+		String lastStartAfter;
+		String failingKey;
+
+		@Override
+		public <ReturnT> ReturnT getObject(GetObjectRequest request,
+										   ResponseTransformer<GetObjectResponse, ReturnT> transformer) {
+			byte[] content = objects.get(request.key());
+			if (content == null) {
+				throw NoSuchKeyException.builder().statusCode(404).message("NoSuchKey").build();
+			}
+			try {
+				return transformer.transform(GetObjectResponse.builder().contentLength((long) content.length).build(),
+						AbortableInputStream.create(new ByteArrayInputStream(content)));
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest request) {
+			return getObject(request, ResponseTransformer.toInputStream());
+		}
+
+		@Override
+		public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+			if (request.key().equals(failingKey)) {
+				throw S3Exception.builder().statusCode(500).message("put rejected").build();
+			}
+			if ("*".equals(request.ifNoneMatch()) && objects.containsKey(request.key())) {
+				throw S3Exception.builder().statusCode(412).message("exists").build();
+			}
+			try (InputStream in = body.contentStreamProvider().newStream()) {
+				objects.put(request.key(), in.readAllBytes());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return PutObjectResponse.builder().eTag("\"" + objects.size() + "\"").build();
+		}
+
+		@Override
+		public ListObjectsV2Response listObjectsV2(ListObjectsV2Request request) {
+			lastStartAfter = request.startAfter();
+			NavigableMap<String, byte[]> after = request.startAfter() == null
+					? objects : objects.tailMap(request.startAfter(), false);
+			List<S3Object> contents = after.keySet().stream()
+					.filter(key -> key.startsWith(request.prefix()))
+					.map(key -> S3Object.builder().key(key).size((long) objects.get(key).length).build())
+					.collect(Collectors.toList());
+			return ListObjectsV2Response.builder().contents(contents).isTruncated(false).build();
+		}
+
+		@Override
+		public String serviceName() {
+			return SERVICE_NAME;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
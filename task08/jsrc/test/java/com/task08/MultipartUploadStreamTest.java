@@ -0,0 +1,235 @@
+package com.task08;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultipartUploadStreamTest {
+
+	private static final int PART_SIZE = MultipartUploadStream.MIN_PART_SIZE;
+
+	@Test
+	void outputBelowOnePartIsOnePutObject() throws IOException {
+		FakeS3 s3 = new FakeS3();
+		byte[] content = content(1000);
+
+		MultipartUploadStream upload = stream(s3, 2);
+		upload.write(content);
+		upload.close();
+
+		assertEquals(1, s3.puts.size());
+		PutObjectRequest put = s3.puts.get(0);
+		assertEquals("bucket", put.bucket());
+		assertEquals("key", put.key());
+		assertEquals("application/json", put.contentType());
+		assertEquals("gzip", put.contentEncoding());
+		assertEquals(1000L, put.contentLength());
+		assertArrayEquals(content, s3.putContent);
+		assertEquals("\"put\"", upload.getETag());
+		assertEquals(0, s3.created);
+		assertEquals(0, upload.getPartCount());
+	}
+
+	@Test
+	void largeOutputCompletesPartsInOrder() throws IOException {
+		FakeS3 s3 = new FakeS3();
+		// later parts finish first, the completed list must still be in part order
+		s3.partDelayMillis = partNumber -> 60 - 20 * partNumber;
+		byte[] content = content(2 * PART_SIZE + 12345);
+
+		MultipartUploadStream upload = stream(s3, 3);
+		// odd-sized writes cross part boundaries
+		for (int offset = 0; offset < content.length; offset += 7777) {
+			upload.write(content, offset, Math.min(7777, content.length - offset));
+		}
+		upload.close();
+
+		assertEquals(0, s3.puts.size());
+		assertEquals(1, s3.created);
+		assertEquals(3, upload.getPartCount());
+		CompleteMultipartUploadRequest complete = s3.completed.get(0);
+		assertEquals("upload-1", complete.uploadId());
+		assertEquals(List.of(1, 2, 3), complete.multipartUpload().parts().stream()
+				.map(CompletedPart::partNumber).collect(Collectors.toList()));
+		assertEquals(List.of("\"part-1\"", "\"part-2\"", "\"part-3\""), complete.multipartUpload().parts().stream()
+				.map(CompletedPart::eTag).collect(Collectors.toList()));
+		assertEquals((long) PART_SIZE, s3.partLengths.get(1));
+		assertEquals((long) PART_SIZE, s3.partLengths.get(2));
+		assertEquals(12345L, s3.partLengths.get(3));
+		assertArrayEquals(content, s3.uploadedContent(3));
+		assertEquals("\"complete\"", upload.getETag());
+		assertEquals(0, s3.aborted);
+	}
+
+	@Test
+	void failedPartAbortsTheUpload() throws IOException {
+		FakeS3 s3 = new FakeS3();
+		s3.failingPart = 2;
+
+		MultipartUploadStream upload = stream(s3, 2);
+
+		// the failure surfaces from write when the part is already done, otherwise from close
+		IOException error = assertThrows(IOException.class, () -> {
+			upload.write(content(2 * PART_SIZE + 1));
+			upload.close();
+		});
+		assertTrue(error.getMessage().contains("part 2 rejected"), error.getMessage());
+		assertEquals(1, s3.aborted);
+		assertEquals("upload-1", s3.abortedUploadId);
+		assertTrue(s3.completed.isEmpty());
+		assertNull(upload.getETag());
+	}
+
+	@Test
+	void abortDropsTheStartedUpload() throws IOException {
+		FakeS3 s3 = new FakeS3();
+
+		MultipartUploadStream upload = stream(s3, 2);
+		upload.write(content(PART_SIZE + 1));
+		upload.abort();
+		upload.close();
+
+		assertEquals(1, s3.aborted);
+		assertTrue(s3.completed.isEmpty());
+		assertTrue(s3.puts.isEmpty());
+	}
+
+	@Test
+	void abortBeforeTheFirstPartSendsNothing() throws IOException {
+		FakeS3 s3 = new FakeS3();
+
+		MultipartUploadStream upload = stream(s3, 2);
+		upload.write(content(10));
+		upload.abort();
+		upload.close();
+
+		assertEquals(0, s3.created);
+		assertEquals(0, s3.aborted);
+		assertTrue(s3.puts.isEmpty());
+	}
+
+	private static MultipartUploadStream stream(S3Client s3, int concurrency) {
+		return new MultipartUploadStream(s3, "bucket", "key", "application/json", "gzip", PART_SIZE, concurrency);
+	}
+
+	private static byte[] content(int length) {
+		byte[] content = new byte[length];
+		for (int i = 0; i < length; i++) {
+			content[i] = (byte) (i * 31 + i / 4096);
+		}
+		return content;
+	}
+
+	private static byte[] read(RequestBody body) {
+		try (InputStream stream = body.contentStreamProvider().newStream()) {
+			return stream.readAllBytes();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private interface PartDelay {
+		long millis(int partNumber);
+	}
+
+	private static final class FakeS3 implements S3Client {
+
+		final List<PutObjectRequest> puts = new ArrayList<>();
+		final List<CompleteMultipartUploadRequest> completed = new ArrayList<>();
+		final Map<Integer, byte[]> partContent = new ConcurrentHashMap<>();
+		final Map<Integer, Long> partLengths = new ConcurrentHashMap<>();
+		byte[] putContent;
+		int created;
+		int aborted;
+		String abortedUploadId;
+		int failingPart = -1;
+		PartDelay partDelayMillis = partNumber -> 0;
+
+		@Override
+		public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+			puts.add(request);
+			putContent = read(body);
+			return PutObjectResponse.builder().eTag("\"put\"").build();
+		}
+
+		@Override
+		public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest request) {
+			created++;
+			return CreateMultipartUploadResponse.builder().uploadId("upload-" + created).build();
+		}
+
+		@Override
+		public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody body) {
+			int partNumber = request.partNumber();
+			if (partNumber == failingPart) {
+				throw S3Exception.builder().message("part " + partNumber + " rejected").build();
+			}
+			try {
+				Thread.sleep(Math.max(0, partDelayMillis.millis(partNumber)));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			partLengths.put(partNumber, request.contentLength());
+			partContent.put(partNumber, read(body));
+			return UploadPartResponse.builder().eTag("\"part-" + partNumber + "\"").build();
+		}
+
+		@Override
+		public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest request) {
+			completed.add(request);
+			return CompleteMultipartUploadResponse.builder().eTag("\"complete\"").build();
+		}
+
+		@Override
+		public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest request) {
+			aborted++;
+			abortedUploadId = request.uploadId();
+			return AbortMultipartUploadResponse.builder().build();
+		}
+
+		byte[] uploadedContent(int parts) {
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			for (int partNumber = 1; partNumber <= parts; partNumber++) {
+				content.writeBytes(partContent.get(partNumber));
+			}
+			return content.toByteArray();
+		}
+
+		@Override
+		public String serviceName() {
+			return SERVICE_NAME;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
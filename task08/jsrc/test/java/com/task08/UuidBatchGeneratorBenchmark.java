@@ -0,0 +1,85 @@
+package com.task08;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ids per second of {@link UuidBatchGenerator} for every RNG and version, against the
+ * UUID.randomUUID().toString() path it replaced. Each invocation writes a batch of ids into one
+ * reused buffer, the way the handler does. Run with -prof gc to compare allocations as well.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidBatchGeneratorBenchmark {
+
+	private static final int BATCH = 1000;
+
+	@State(Scope.Thread)
+	public static class Generator {
+
+		@Param({"SECURE", "FAST"})
+		public UuidBatchGenerator.Rng rng;
+
+		@Param({"V4", "V7"})
+		public UuidBatchGenerator.Version version;
+
+		UuidBatchGenerator generator;
+		final byte[] text = new byte[BATCH * UuidBatchGenerator.TEXT_LENGTH];
+		final byte[] binary = new byte[BATCH * UuidBatchGenerator.BINARY_LENGTH];
+
+		@Setup
+		public void setUp() {
+			generator = new UuidBatchGenerator(rng, version);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Baseline {
+		final byte[] text = new byte[BATCH * UuidBatchGenerator.TEXT_LENGTH];
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public byte[] text(Generator state) {
+		for (int i = 0; i < BATCH; i++) {
+			state.generator.nextText(state.text, i * UuidBatchGenerator.TEXT_LENGTH);
+		}
+		return state.text;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public byte[] binary(Generator state) {
+		for (int i = 0; i < BATCH; i++) {
+			state.generator.nextBinary(state.binary, i * UuidBatchGenerator.BINARY_LENGTH);
+		}
+		return state.binary;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public byte[] randomUuidText(Baseline state) {
+		for (int i = 0; i < BATCH; i++) {
+			byte[] id = UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII);
+			System.arraycopy(id, 0, state.text, i * UuidBatchGenerator.TEXT_LENGTH, id.length);
+		}
+		return state.text;
+	}
+}
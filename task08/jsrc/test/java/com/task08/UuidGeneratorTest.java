@@ -0,0 +1,106 @@
+package com.task08;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidGeneratorTest {
+
+	private HttpServer server;
+	private final List<Recorded> requests = new ArrayList<>();
+
+	@BeforeAll
+	static void credentials() {
+		System.setProperty("aws.accessKeyId", "test");
+		System.setProperty("aws.secretAccessKey", "test");
+	}
+
+	@AfterAll
+	static void clearCredentials() {
+		System.clearProperty("aws.accessKeyId");
+		System.clearProperty("aws.secretAccessKey");
+	}
+
+	@BeforeEach
+	void startStandIn() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", exchange -> {
+			try (InputStream body = exchange.getRequestBody()) {
+				synchronized (requests) {
+					requests.add(new Recorded(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+							exchange.getRequestHeaders().getFirst("Content-Type"),
+							exchange.getRequestHeaders().getFirst("Authorization"),
+							new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+				}
+			}
+			exchange.getResponseHeaders().add("ETag", "\"etag-1\"");
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void stopStandIn() {
+		server.stop(0);
+	}
+
+	@Test
+	void endpointOverrideUsesPathStyleAndTheGivenRegion() throws IOException {
+		String endpoint = "http://localhost:" + server.getAddress().getPort();
+		try (S3Client s3 = UuidGenerator.createS3Client("eu-west-1", endpoint)) {
+			MultipartUploadStream upload = new MultipartUploadStream(s3, "uuids", "2024/01/01/batch.json",
+					"application/json", null, MultipartUploadStream.MIN_PART_SIZE, 1);
+			upload.write("{\"ids\":[\"a\"]}".getBytes(StandardCharsets.UTF_8));
+			upload.close();
+
+			assertEquals("\"etag-1\"", upload.getETag());
+		}
+
+		assertEquals(1, requests.size());
+		Recorded put = requests.get(0);
+		assertEquals("PUT", put.method);
+		assertEquals("/uuids/2024/01/01/batch.json", put.path);
+		assertEquals("application/json", put.contentType);
+		assertTrue(put.authorization.contains("/eu-west-1/s3/aws4_request"), put.authorization);
+		assertTrue(put.body.contains("{\"ids\":[\"a\"]}"), put.body);
+	}
+
+	@Test
+	void blankEndpointKeepsTheDefaultEndpoint() {
+		try (S3Client s3 = UuidGenerator.createS3Client("eu-west-1", "")) {
+			assertEquals("eu-west-1", s3.serviceClientConfiguration().region().id());
+			assertTrue(s3.serviceClientConfiguration().endpointOverride().isEmpty());
+		}
+	}
+
+	private static final class Recorded {
+		final String method;
+		final String path;
+		final String contentType;
+		final String authorization;
+		final String body;
+
+		Recorded(String method, String path, String contentType, String authorization, String body) {
+			this.method = method;
+			this.path = path;
+			this.contentType = contentType;
+			this.authorization = authorization;
+			this.body = body;
+		}
+	}
+}
@@ -1,9 +1,13 @@
 package com.task09;
 
 import com.amazonaws.services.lambda.runtime.Context;
-import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.syndicate.deployment.annotations.environment.EnvironmentVariable;
+import com.syndicate.deployment.annotations.environment.EnvironmentVariables;
 import com.syndicate.deployment.annotations.lambda.LambdaHandler;
 import com.syndicate.deployment.annotations.lambda.LambdaLayer;
 import com.syndicate.deployment.annotations.lambda.LambdaUrlConfig;
@@ -13,11 +17,11 @@ import com.syndicate.deployment.model.RetentionSetting;
 import com.syndicate.deployment.model.lambda.url.AuthType;
 import com.syndicate.deployment.model.lambda.url.InvokeMode;
 import org.example.WeatherClient;
-import org.example.WeatherResponse;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
 
 @LambdaHandler(
@@ -38,28 +42,40 @@ import java.util.Map;
 		runtime = DeploymentRuntime.JAVA11,
 		artifactExtension = ArtifactExtension.ZIP
 )
-public class ApiHandler implements RequestHandler<Object, APIGatewayProxyResponseEvent> {
+@EnvironmentVariables(value = {
+		@EnvironmentVariable(key = "cache_ttl_seconds", value = "300"),
+		@EnvironmentVariable(key = "cache_stale_ttl_seconds", value = "3600")})
+public class ApiHandler implements RequestStreamHandler {
 
-	private final WeatherClient weatherClient = new WeatherClient();
+	private static final WeatherClient weatherClient = new WeatherClient();
 	private static final ObjectMapper objectMapper = new ObjectMapper();
+	private static final ObjectWriter responseWriter = objectMapper.copy()
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+			.writerFor(APIGatewayProxyResponseEvent.class);
+	private static final WeatherCache weatherCache = WeatherCache.fromEnv(() -> weatherClient.getWeather().toJson());
 
 
+	/**
+	 * Only the routing fields are read from the event, see {@link HttpEvent}; the response is
+	 * written straight to the output stream, null fields omitted.
+	 */
 	@Override
-	public APIGatewayProxyResponseEvent handleRequest(Object request, Context context) {
-
-		Map<String, String> data = getPathAndMethod(request);
+	public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
+		responseWriter.writeValue(output, handle(HttpEvent.read(objectMapper.getFactory(), input)));
+	}
 
-		String path = data.get("path");
-		String method = data.get("method");
+	private APIGatewayProxyResponseEvent handle(HttpEvent event) {
+		String path = event.getPath();
+		String method = event.getMethod();
 
 		if ("/weather".equals(path) && "GET".equalsIgnoreCase(method)) {
 			try {
-				WeatherResponse weatherResponse = weatherClient.getWeather();
-//				Map<String, Object> responseMap = new HashMap<>();
-//				responseMap.put("statusCode", 200);
-//				responseMap.put("body", weatherResponse.toJson());
-				return createResponse(200, weatherResponse.toJson());
-			} catch (IOException e) {
+				WeatherCache.Entry weather = weatherCache.get();
+				if (matchesEtag(event.getIfNoneMatch(), weather.etag)) {
+					return createCachedResponse(304, null, weather);
+				}
+				return createCachedResponse(200, weather.body, weather);
+			} catch (Exception e) {
 				return createResponse(500, "{\"error\": \"Failed to fetch weather data\"}");
 			}
 		} else {
@@ -80,30 +96,26 @@ public class ApiHandler implements RequestHandler<Object, APIGatewayProxyRespons
 				.withHeaders(headers);
 	}
 
-	private Map<String, String> getPathAndMethod(Object request) {
-
-		ObjectMapper objectMapper = new ObjectMapper();
-		Map<String, String> result = new HashMap<>();
-
-		try {
-			// Конвертація JSON у мапу
-			Map<String, Object> data = objectMapper.convertValue(request, LinkedHashMap.class);
-
-			// Отримання requestContext
-			Map<String, Object> requestContext = (Map<String, Object>) data.get("requestContext");
-
-			// Отримання http
-			Map<String, Object> http = (Map<String, Object>) requestContext.get("http");
-
-			// Отримання path та method
-			String path = (String) http.get("path");
-			String method = (String) http.get("method");
+	private APIGatewayProxyResponseEvent createCachedResponse(int statusCode, String body, WeatherCache.Entry weather) {
+		APIGatewayProxyResponseEvent response = createResponse(statusCode, body);
+		response.getHeaders().put("etag", weather.etag);
+		response.getHeaders().put("cache-control", "public, max-age=" + weatherCache.maxAgeSeconds(weather));
+		return response;
+	}
 
-			result.put("path", path);
-			result.put("method", method);
-		} catch (Exception e) {
-			e.printStackTrace();
+	private static boolean matchesEtag(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String tag = candidate.trim();
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if ("*".equals(tag) || etag.equals(tag)) {
+				return true;
+			}
 		}
-		return result;
+		return false;
 	}
 }
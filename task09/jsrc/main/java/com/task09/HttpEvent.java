@@ -0,0 +1,92 @@
+package com.task09;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The routing fields of a function URL event: requestContext.http.path / method and the
+ * if-none-match header. They are read with a pull parser that skips every other field (body
+ * included) without materializing it, and stops as soon as both objects have been seen.
+ */
+public class HttpEvent {
+
+	private String path;
+	private String method;
+	private String ifNoneMatch;
+
+	public String getPath() {
+		return path;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public String getIfNoneMatch() {
+		return ifNoneMatch;
+	}
+
+	public static HttpEvent read(JsonFactory factory, InputStream input) throws IOException {
+		HttpEvent event = new HttpEvent();
+		try (JsonParser parser = factory.createParser(input)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				return event;
+			}
+			boolean contextSeen = false;
+			boolean headersSeen = false;
+			while (!(contextSeen && headersSeen) && parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+				if ("requestContext".equals(field) && value == JsonToken.START_OBJECT) {
+					readRequestContext(parser, event);
+					contextSeen = true;
+				} else if ("headers".equals(field) && value == JsonToken.START_OBJECT) {
+					readHeaders(parser, event);
+					headersSeen = true;
+				} else {
+					parser.skipChildren();
+				}
+			}
+		}
+		return event;
+	}
+
+	private static void readRequestContext(JsonParser parser, HttpEvent event) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if ("http".equals(field) && value == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String httpField = parser.getCurrentName();
+					parser.nextToken();
+					if ("path".equals(httpField)) {
+						event.path = parser.getValueAsString();
+					} else if ("method".equals(httpField)) {
+						event.method = parser.getValueAsString();
+					} else {
+						parser.skipChildren();
+					}
+				}
+			} else {
+				parser.skipChildren();
+			}
+		}
+	}
+
+	private static void readHeaders(JsonParser parser, HttpEvent event) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			// function URL events carry lower-cased header names
+			String header = parser.getCurrentName();
+			parser.nextToken();
+			if ("if-none-match".equals(header)) {
+				event.ifNoneMatch = parser.getValueAsString();
+			} else {
+				parser.skipChildren();
+			}
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package com.task09;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.syndicate.deployment.annotations.environment.EnvironmentVariable;
+import com.syndicate.deployment.annotations.environment.EnvironmentVariables;
+import com.syndicate.deployment.annotations.lambda.LambdaHandler;
+import com.syndicate.deployment.annotations.lambda.LambdaUrlConfig;
+import com.syndicate.deployment.model.RetentionSetting;
+import com.syndicate.deployment.model.lambda.url.AuthType;
+import com.syndicate.deployment.model.lambda.url.InvokeMode;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Response-streaming variant of {@link ApiHandler}. GET /weather copies the upstream body token by
+ * token from the open-meteo response to the Lambda output stream, so the forecast is never held
+ * as a String or a tree.
+ *
+ * The managed Java runtime does not stream: it collects the whole output stream and posts it once,
+ * as Lambda supports native response streaming only on the Node.js managed runtimes. Deployed as
+ * it is, time to first byte and peak memory are those of a buffered handler. The first bytes only
+ * leave while the rest is being read when the function runs on a custom runtime or behind the
+ * Lambda Web Adapter, which forward the output stream as it is written.
+ *
+ * A streamed function URL response starts with the HTTP integration prelude: a JSON object with
+ * statusCode and headers, then 8 NUL bytes, then the body. Every response, errors included, is
+ * written that way. Errors, an empty upstream body among them, are detected before anything is
+ * written, so they keep their status.
+ *
+ * {@link #handle(InputStream, OutputStream)} needs no Lambda Context, so the handler can be driven
+ * locally with in-memory streams.
+ */
+@LambdaHandler(
+		lambdaName = "streaming_api_handler",
+		roleName = "api_handler-role",
+		isPublishVersion = true,
+		aliasName = "${lambdas_alias_name}",
+		logsExpiration = RetentionSetting.SYNDICATE_ALIASES_SPECIFIED
+)
+@LambdaUrlConfig(
+		authType = AuthType.NONE,
+		invokeMode = InvokeMode.RESPONSE_STREAM
+)
+@EnvironmentVariables(value = {
+		@EnvironmentVariable(key = "weather_url", value = StreamingApiHandler.DEFAULT_WEATHER_URL)})
+public class StreamingApiHandler implements RequestStreamHandler {
+
+	static final String DEFAULT_WEATHER_URL = "https://api.open-meteo.com/v1/forecast?latitude=50.4375&longitude=30.5"
+			+ "&current=temperature_2m,wind_speed_10m&hourly=temperature_2m,relative_humidity_2m,wind_speed_10m";
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+	private static final OkHttpClient httpClient = new OkHttpClient();
+
+	private final String weatherUrl;
+
+	private static final byte[] PRELUDE_DELIMITER = new byte[8];
+	private static final Map<String, String> JSON_HEADERS = Map.of("content-type", "application/json");
+
+	public StreamingApiHandler() {
+		this(weatherUrlFromEnv());
+	}
+
+	StreamingApiHandler(String weatherUrl) {
+		this.weatherUrl = weatherUrl;
+	}
+
+	private static String weatherUrlFromEnv() {
+		String url = System.getenv("weather_url");
+		return url == null || url.isEmpty() ? DEFAULT_WEATHER_URL : url;
+	}
+
+	@Override
+	public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
+		handle(input, output);
+	}
+
+	public void handle(InputStream input, OutputStream output) throws IOException {
+		HttpEvent event = HttpEvent.read(objectMapper.getFactory(), input);
+		String path = event.getPath();
+		String method = event.getMethod();
+
+		if (!"/weather".equals(path) || !"GET".equalsIgnoreCase(method)) {
+			String errorMessage = String.format(
+					"{\"statusCode\": 400, \"message\": \"Bad request syntax or unsupported method. Request path: %s. HTTP method: %s\"}",
+					path, method);
+			writeResponse(output, 400, errorMessage);
+			return;
+		}
+
+		Response response;
+		try {
+			response = httpClient.newCall(new Request.Builder().url(weatherUrl).build()).execute();
+		} catch (IOException e) {
+			writeResponse(output, 500, "{\"error\": \"Failed to fetch weather data\"}");
+			return;
+		}
+		try (Response upstream = response) {
+			if (!upstream.isSuccessful() || upstream.body() == null) {
+				writeResponse(output, 500, "{\"error\": \"Failed to fetch weather data\"}");
+				return;
+			}
+			try (JsonParser parser = objectMapper.getFactory().createParser(upstream.body().byteStream())) {
+				if (parser.nextToken() == null) {
+					writeResponse(output, 500, "{\"error\": \"Empty weather data\"}");
+					return;
+				}
+				writePrelude(output, 200, JSON_HEADERS);
+				// past this point bytes are on the wire, a failure can only abort the stream
+				try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+					generator.copyCurrentStructure(parser);
+				}
+			}
+		}
+	}
+
+	private static void writeResponse(OutputStream output, int statusCode, String body) throws IOException {
+		writePrelude(output, statusCode, JSON_HEADERS);
+		output.write(body.getBytes(StandardCharsets.UTF_8));
+		output.flush();
+	}
+
+	private static void writePrelude(OutputStream output, int statusCode, Map<String, String> headers) throws IOException {
+		Map<String, Object> metadata = new LinkedHashMap<>();
+		metadata.put("statusCode", statusCode);
+		metadata.put("headers", headers);
+		// writeValueAsBytes, writeValue(output) would close the stream before the body
+		output.write(objectMapper.writeValueAsBytes(metadata));
+		output.write(PRELUDE_DELIMITER);
+	}
+}
@@ -0,0 +1,145 @@
+package com.task09;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Container-level cache of the upstream weather response with stale-while-revalidate.
+ *
+ * - fresh (younger than ttl): served from memory.
+ * - stale (younger than ttl + staleTtl): served from memory while one background refresh runs.
+ * - missing or expired: callers wait for a load, concurrent callers share the same load.
+ *
+ * The body is kept as the ready JSON string together with its ETag, so a hit costs no
+ * serialization. Lambda freezes the container between invocations, so a background refresh can
+ * finish during the next invocation; the stale entry is served until then.
+ */
+public class WeatherCache {
+
+	private static final long DEFAULT_TTL_SECONDS = 300;
+	private static final long DEFAULT_STALE_TTL_SECONDS = 3_600;
+
+	private static final Executor REFRESH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "weather-cache-refresh");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Loader loader;
+	private final long ttlMillis;
+	private final long staleTtlMillis;
+	private final AtomicReference<Entry> current = new AtomicReference<>();
+	private final AtomicReference<CompletableFuture<Entry>> inFlight = new AtomicReference<>();
+
+	public WeatherCache(Loader loader, long ttlSeconds, long staleTtlSeconds) {
+		this.loader = loader;
+		this.ttlMillis = ttlSeconds * 1_000;
+		this.staleTtlMillis = staleTtlSeconds * 1_000;
+	}
+
+	public static WeatherCache fromEnv(Loader loader) {
+		return new WeatherCache(loader,
+				seconds("cache_ttl_seconds", DEFAULT_TTL_SECONDS),
+				seconds("cache_stale_ttl_seconds", DEFAULT_STALE_TTL_SECONDS));
+	}
+
+	public Entry get() throws Exception {
+		long now = System.currentTimeMillis();
+		Entry entry = current.get();
+		if (entry == null || now - entry.loadedAt >= ttlMillis + staleTtlMillis) {
+			return await(load(false));
+		}
+		if (now - entry.loadedAt >= ttlMillis) {
+			load(true);
+		}
+		return entry;
+	}
+
+	/**
+	 * @return seconds the entry may still be cached by clients
+	 */
+	public long maxAgeSeconds(Entry entry) {
+		return Math.max(0, (entry.loadedAt + ttlMillis - System.currentTimeMillis()) / 1_000);
+	}
+
+	/**
+	 * Starts a load unless one is already running, in which case its future is returned.
+	 */
+	private CompletableFuture<Entry> load(boolean background) {
+		CompletableFuture<Entry> running = inFlight.get();
+		if (running != null) {
+			return running;
+		}
+		CompletableFuture<Entry> future = new CompletableFuture<>();
+		if (!inFlight.compareAndSet(null, future)) {
+			return inFlight.get();
+		}
+		Runnable task = () -> {
+			try {
+				Entry entry = new Entry(loader.load(), System.currentTimeMillis());
+				current.set(entry);
+				future.complete(entry);
+			} catch (Throwable e) {
+				future.completeExceptionally(e);
+			} finally {
+				inFlight.compareAndSet(future, null);
+			}
+		};
+		if (background) {
+			REFRESH_EXECUTOR.execute(task);
+		} else {
+			task.run();
+		}
+		return future;
+	}
+
+	private static Entry await(CompletableFuture<Entry> future) throws Exception {
+		try {
+			return future.get();
+		} catch (ExecutionException | CompletionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private static long seconds(String name, long defaultValue) {
+		String value = System.getenv(name);
+		return value == null || value.isEmpty() ? defaultValue : Long.parseLong(value);
+	}
+
+	@FunctionalInterface
+	public interface Loader {
+		String load() throws Exception;
+	}
+
+	public static class Entry {
+		public final String body;
+		public final String etag;
+		final long loadedAt;
+
+		Entry(String body, long loadedAt) {
+			this.body = body;
+			this.etag = etag(body);
+			this.loadedAt = loadedAt;
+		}
+
+		private static String etag(String body) {
+			try {
+				byte[] digest = MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+				return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
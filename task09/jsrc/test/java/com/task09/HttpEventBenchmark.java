@@ -0,0 +1,78 @@
+package com.task09;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of reading the routing fields of a function URL event. The baseline is what
+ * the handler did before: the runtime binds the event to an Object tree, then a new ObjectMapper
+ * converts it to a LinkedHashMap to read requestContext.http. Against it, {@link HttpEvent#read}
+ * on the raw stream. Allocation per request is the number to compare, run it with -prof gc and
+ * read gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpEventBenchmark {
+
+	@Param({"0", "65536"})
+	public int bodyBytes;
+
+	private final ObjectMapper runtimeMapper = new ObjectMapper();
+	private final JsonFactory factory = new ObjectMapper().getFactory();
+	private byte[] event;
+
+	@Setup
+	public void setUp() {
+		char[] body = new char[bodyBytes];
+		Arrays.fill(body, 'x');
+		event = ("{\"version\":\"2.0\",\"routeKey\":\"$default\",\"rawPath\":\"/weather\",\"rawQueryString\":\"\","
+				+ "\"headers\":{\"accept\":\"*/*\",\"host\":\"abc.lambda-url.eu-central-1.on.aws\","
+				+ "\"user-agent\":\"curl/8.4.0\",\"x-amzn-trace-id\":\"Root=1-65f0-abc\",\"x-forwarded-for\":\"203.0.113.1\","
+				+ "\"x-forwarded-port\":\"443\",\"x-forwarded-proto\":\"https\"},"
+				+ "\"requestContext\":{\"accountId\":\"anonymous\",\"apiId\":\"abc\",\"domainName\":\"abc.lambda-url.eu-central-1.on.aws\","
+				+ "\"domainPrefix\":\"abc\",\"http\":{\"method\":\"GET\",\"path\":\"/weather\",\"protocol\":\"HTTP/1.1\","
+				+ "\"sourceIp\":\"203.0.113.1\",\"userAgent\":\"curl/8.4.0\"},\"requestId\":\"6e1b1c6f-1c1a-4b5e-9e36-0d2a1e6f2b11\","
+				+ "\"routeKey\":\"$default\",\"stage\":\"$default\",\"time\":\"12/Mar/2024:10:00:00 +0000\",\"timeEpoch\":1710237600000},"
+				+ "\"body\":\"" + new String(body) + "\",\"isBase64Encoded\":false}").getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public String convertValue() throws IOException {
+		Object request = runtimeMapper.readValue(event, Object.class);
+		ObjectMapper objectMapper = new ObjectMapper();
+		Map<String, Object> data = objectMapper.convertValue(request, LinkedHashMap.class);
+		Map<String, Object> requestContext = (Map<String, Object>) data.get("requestContext");
+		Map<String, Object> http = (Map<String, Object>) requestContext.get("http");
+		return (String) http.get("path") + http.get("method");
+	}
+
+	@Benchmark
+	public String httpEvent() throws IOException {
+		HttpEvent httpEvent = HttpEvent.read(factory, new ByteArrayInputStream(event));
+		return httpEvent.getPath() + httpEvent.getMethod();
+	}
+}
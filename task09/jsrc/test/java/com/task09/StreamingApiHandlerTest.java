@@ -0,0 +1,127 @@
+package com.task09;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives {@link StreamingApiHandler#handle} with in-memory streams against a local upstream and
+ * checks the HTTP integration prelude the function URL expects in front of the body.
+ */
+class StreamingApiHandlerTest {
+
+	private static final String FORECAST = "{\"latitude\":50.4375,\"hourly\":{\"time\":[\"2024-01-01T00:00\"],"
+			+ "\"temperature_2m\":[-1.5]}}";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private HttpServer upstream;
+	private int upstreamStatus = 200;
+	private String upstreamBody = FORECAST;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		upstream = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		upstream.createContext("/v1/forecast", exchange -> {
+			byte[] body = upstreamBody.getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(upstreamStatus, body.length == 0 ? -1 : body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		upstream.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		upstream.stop(0);
+	}
+
+	@Test
+	void streamsTheForecastAfterThePrelude() throws IOException {
+		StreamedResponse response = invoke(handler(), "GET", "/weather");
+
+		assertEquals(200, response.metadata.get("statusCode").asInt());
+		assertEquals("application/json", response.metadata.get("headers").get("content-type").asText());
+		assertEquals(objectMapper.readTree(FORECAST), objectMapper.readTree(response.body));
+	}
+
+	@Test
+	void unsupportedRoutesGetA400Prelude() throws IOException {
+		StreamedResponse response = invoke(handler(), "POST", "/weather");
+
+		assertEquals(400, response.metadata.get("statusCode").asInt());
+		assertTrue(objectMapper.readTree(response.body).get("message").asText().contains("HTTP method: POST"));
+	}
+
+	@Test
+	void upstreamFailuresGetA500Prelude() throws IOException {
+		upstreamStatus = 503;
+
+		StreamedResponse response = invoke(handler(), "GET", "/weather");
+
+		assertEquals(500, response.metadata.get("statusCode").asInt());
+		assertEquals("Failed to fetch weather data", objectMapper.readTree(response.body).get("error").asText());
+	}
+
+	@Test
+	void emptyUpstreamBodyGetsA500Prelude() throws IOException {
+		upstreamBody = "";
+
+		StreamedResponse response = invoke(handler(), "GET", "/weather");
+
+		assertEquals(500, response.metadata.get("statusCode").asInt());
+		assertEquals("Empty weather data", objectMapper.readTree(response.body).get("error").asText());
+	}
+
+	private StreamingApiHandler handler() {
+		return new StreamingApiHandler("http://localhost:" + upstream.getAddress().getPort() + "/v1/forecast");
+	}
+
+	private StreamedResponse invoke(StreamingApiHandler handler, String method, String path) throws IOException {
+		String event = "{\"version\":\"2.0\",\"rawPath\":\"" + path + "\",\"headers\":{\"accept\":\"*/*\"},"
+				+ "\"requestContext\":{\"http\":{\"method\":\"" + method + "\",\"path\":\"" + path + "\"}},\"isBase64Encoded\":false}";
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		handler.handle(new ByteArrayInputStream(event.getBytes(StandardCharsets.UTF_8)), output);
+		return new StreamedResponse(output.toByteArray());
+	}
+
+	private class StreamedResponse {
+		private final JsonNode metadata;
+		private final String body;
+
+		StreamedResponse(byte[] bytes) throws IOException {
+			int delimiter = indexOfDelimiter(bytes);
+			assertTrue(delimiter > 0, "no 8-byte NUL delimiter after the prelude");
+			metadata = objectMapper.readTree(Arrays.copyOfRange(bytes, 0, delimiter));
+			body = new String(bytes, delimiter + 8, bytes.length - delimiter - 8, StandardCharsets.UTF_8);
+		}
+
+		private int indexOfDelimiter(byte[] bytes) {
+			for (int i = 0; i + 8 <= bytes.length; i++) {
+				int zeros = 0;
+				while (zeros < 8 && bytes[i + zeros] == 0) {
+					zeros++;
+				}
+				if (zeros == 8) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+}
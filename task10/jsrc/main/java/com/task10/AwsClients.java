@@ -0,0 +1,24 @@
+package com.task10;
+
+import com.common.ClientDefaults;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+/**
+ * SDK clients of the processor, configured by {@link ClientDefaults}. The client is created on
+ * first use through a holder class.
+ */
+public final class AwsClients {
+
+	private static final String REGION_VARIABLE = "region";
+
+	private AwsClients() {
+	}
+
+	public static DynamoDbClient dynamoDb() {
+		return DynamoDbHolder.CLIENT;
+	}
+
+	private static final class DynamoDbHolder {
+		static final DynamoDbClient CLIENT = ClientDefaults.configure(DynamoDbClient.builder(), REGION_VARIABLE).build();
+	}
+}
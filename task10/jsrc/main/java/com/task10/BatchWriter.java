@@ -0,0 +1,100 @@
+package com.task10;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Writes items with BatchWriteItem in chunks of 25, submitting the chunks in parallel.
+ * UnprocessedItems are retried with exponential backoff and full jitter.
+ */
+public class BatchWriter {
+
+	static final int MAX_BATCH_SIZE = 25;
+	private static final int MAX_ATTEMPTS = 8;
+	private static final long BASE_BACKOFF_MILLIS = 50;
+	private static final long MAX_BACKOFF_MILLIS = 2_000;
+	private static final int MAX_PARALLEL_CHUNKS = 4;
+
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(MAX_PARALLEL_CHUNKS, runnable -> {
+		Thread thread = new Thread(runnable, "batch-writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Supplier<DynamoDbClient> db;
+
+	public BatchWriter(Supplier<DynamoDbClient> db) {
+		this.db = db;
+	}
+
+	public void putAll(String tableName, List<Map<String, AttributeValue>> items) throws DynamoDbException {
+		List<Future<?>> chunks = new ArrayList<>();
+		for (int from = 0; from < items.size(); from += MAX_BATCH_SIZE) {
+			List<WriteRequest> requests = new ArrayList<>();
+			for (Map<String, AttributeValue> item : items.subList(from, Math.min(from + MAX_BATCH_SIZE, items.size()))) {
+				requests.add(WriteRequest.builder()
+						.putRequest(PutRequest.builder().item(item).build())
+						.build());
+			}
+			chunks.add(EXECUTOR.submit(() -> writeChunk(tableName, requests)));
+		}
+
+		for (Future<?> chunk : chunks) {
+			try {
+				chunk.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw DynamoDbException.builder().message("Interrupted while writing to " + tableName).cause(e).build();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw DynamoDbException.builder().message("Batch write to " + tableName + " failed").cause(e.getCause()).build();
+			}
+		}
+	}
+
+	private void writeChunk(String tableName, List<WriteRequest> requests) {
+		Map<String, List<WriteRequest>> pending = Map.of(tableName, requests);
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			if (attempt > 0) {
+				sleep(attempt);
+			}
+			BatchWriteItemResponse response = db.get().batchWriteItem(BatchWriteItemRequest.builder()
+					.requestItems(pending)
+					.build());
+			if (!response.hasUnprocessedItems() || response.unprocessedItems().isEmpty()) {
+				return;
+			}
+			pending = response.unprocessedItems();
+		}
+		throw DynamoDbException.builder()
+				.message(pending.get(tableName).size() + " items still unprocessed after " + MAX_ATTEMPTS + " attempts")
+				.build();
+	}
+
+	private static void sleep(int attempt) {
+		long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << attempt);
+		try {
+			Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw DynamoDbException.builder().message("Interrupted during batch write backoff").cause(e).build();
+		}
+	}
+}
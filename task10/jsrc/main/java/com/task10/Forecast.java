@@ -0,0 +1,134 @@
+package com.task10;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * open-meteo forecast with the hourly data held as primitive columns. Hourly times are the
+ * local wall-clock times of the response, stored as seconds since 1970-01-01T00:00 of that
+ * wall clock. Missing hourly values are NaN.
+ */
+public class Forecast {
+	// 72 bits of the hash, enough to tell the model runs of one location and hour apart
+	static final int RUN_ID_HASH_CHARS = 12;
+
+	public double latitude;
+	public double longitude;
+	public double elevation;
+	public double generationTimeMs;
+	public int utcOffsetSeconds;
+	public String timezone;
+	public String timezoneAbbreviation;
+	public long[] hourlyTime = new long[0];
+	public final Map<String, double[]> hourly = new LinkedHashMap<>();
+	public final Map<String, String> hourlyUnits = new LinkedHashMap<>();
+
+	public String location() {
+		return latitude + "," + longitude;
+	}
+
+	public int hours() {
+		return hourlyTime.length;
+	}
+
+	/**
+	 * Key of one model run's forecast: location, first forecast hour and the start of the content
+	 * hash. open-meteo serves every model update under the same first hour, so the hash keeps each
+	 * update as its own item, while a rerun that fetched identical data upserts the same item.
+	 *
+	 * @param contentHash {@link #contentHash()} of this forecast
+	 */
+	public String runId(String contentHash) {
+		return location() + "#" + (hourlyTime.length == 0 ? "" : formatTime(hourlyTime[0]))
+				+ "#" + contentHash.substring(0, RUN_ID_HASH_CHARS);
+	}
+
+	/**
+	 * SHA-256 of the location, hourly times, columns and units. generationtime_ms changes on every
+	 * response and is deliberately left out.
+	 */
+	public String contentHash() {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		digest.update(location().getBytes(StandardCharsets.UTF_8));
+		ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+		for (long time : hourlyTime) {
+			update(digest, buffer, time);
+		}
+		for (Map.Entry<String, double[]> column : hourly.entrySet()) {
+			digest.update(column.getKey().getBytes(StandardCharsets.UTF_8));
+			String unit = hourlyUnits.get(column.getKey());
+			if (unit != null) {
+				digest.update(unit.getBytes(StandardCharsets.UTF_8));
+			}
+			for (double value : column.getValue()) {
+				update(digest, buffer, Double.doubleToLongBits(value));
+			}
+		}
+		return Base64.getEncoder().encodeToString(digest.digest());
+	}
+
+	private static void update(MessageDigest digest, ByteBuffer buffer, long value) {
+		buffer.clear();
+		buffer.putLong(value).flip();
+		digest.update(buffer);
+	}
+
+	public static String formatTime(long localEpochSecond) {
+		return LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC).toString();
+	}
+
+	/**
+	 * Local epoch second of an open-meteo time. The usual "yyyy-MM-ddTHH:mm" form is read by hand,
+	 * at a fraction of the cost of LocalDateTime.parse, which stays the fallback for anything else.
+	 */
+	public static long parseTime(String time) {
+		if (time.length() == 16 && time.charAt(4) == '-' && time.charAt(7) == '-' && time.charAt(10) == 'T'
+				&& time.charAt(13) == ':') {
+			int year = digits(time, 0, 4);
+			int month = digits(time, 5, 7);
+			int day = digits(time, 8, 10);
+			int hour = digits(time, 11, 13);
+			int minute = digits(time, 14, 16);
+			if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && hour < 24 && minute >= 0 && minute < 60) {
+				// LocalDate.of still rejects impossible dates
+				return LocalDate.of(year, month, day).toEpochDay() * 86_400 + hour * 3_600 + minute * 60;
+			}
+		}
+		return LocalDateTime.parse(time).toEpochSecond(ZoneOffset.UTC);
+	}
+
+	private static int digits(String text, int start, int end) {
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	/**
+	 * DynamoDB number text of a column value, integral values are written without a fraction.
+	 */
+	public static String formatNumber(double value) {
+		if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+			return Long.toString((long) value);
+		}
+		return Double.toString(value);
+	}
+}
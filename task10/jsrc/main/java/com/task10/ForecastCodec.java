@@ -0,0 +1,338 @@
+package com.task10;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of the hourly columns of a forecast, one binary attribute per column.
+ *
+ * Every column starts with a version byte and the number of values as a varint.
+ * - time: the first value as a zigzag varint, then zigzag varints of delta-of-delta. Regular
+ *   hourly steps encode to one zero byte per hour.
+ * - values: a kind byte, then either
+ *   - scaled: when every value is exactly k / 10^scale for a small scale (open-meteo rounds to one
+ *     decimal), the scale byte and zigzag varint deltas of k. One or two bytes per hour.
+ *   - xor: Gorilla-style XOR of consecutive IEEE 754 bit patterns, for anything else, NaN included.
+ * Decoding is bit-exact in both cases.
+ */
+public final class ForecastCodec {
+
+	public static final String ENCODING = "compact-v1";
+	static final byte VERSION = 1;
+	static final byte KIND_XOR = 0;
+	static final byte KIND_SCALED = 1;
+	private static final int MAX_SCALE = 4;
+	private static final double[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+
+	private ForecastCodec() {
+	}
+
+	/**
+	 * @return the hourly map of the stored forecast: "time" plus one entry per variable
+	 */
+	public static Map<String, AttributeValue> encodeHourly(Forecast forecast) {
+		Map<String, AttributeValue> hourly = new LinkedHashMap<>();
+		hourly.put("time", binary(encodeTimes(forecast.hourlyTime)));
+		for (Map.Entry<String, double[]> column : forecast.hourly.entrySet()) {
+			hourly.put(column.getKey(), binary(encodeValues(column.getValue())));
+		}
+		return hourly;
+	}
+
+	/**
+	 * Reads a hourly map written by {@link #encodeHourly} back into the forecast columns.
+	 */
+	public static void decodeHourly(Map<String, AttributeValue> hourly, Forecast into) {
+		for (Map.Entry<String, AttributeValue> column : hourly.entrySet()) {
+			byte[] bytes = column.getValue().b().asByteArrayUnsafe();
+			if ("time".equals(column.getKey())) {
+				into.hourlyTime = decodeTimes(bytes);
+			} else {
+				into.hourly.put(column.getKey(), decodeValues(bytes));
+			}
+		}
+	}
+
+	public static byte[] encodeTimes(long[] times) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(8 + times.length);
+		out.write(VERSION);
+		writeVarint(out, times.length);
+		long previous = 0;
+		long previousDelta = 0;
+		for (int i = 0; i < times.length; i++) {
+			if (i == 0) {
+				writeVarint(out, zigzag(times[0]));
+			} else {
+				long delta = times[i] - previous;
+				writeVarint(out, zigzag(delta - previousDelta));
+				previousDelta = delta;
+			}
+			previous = times[i];
+		}
+		return out.toByteArray();
+	}
+
+	public static long[] decodeTimes(byte[] bytes) {
+		Cursor in = new Cursor(bytes);
+		checkVersion(in.next());
+		long[] times = new long[(int) in.varint()];
+		long previous = 0;
+		long previousDelta = 0;
+		for (int i = 0; i < times.length; i++) {
+			if (i == 0) {
+				times[0] = unzigzag(in.varint());
+			} else {
+				previousDelta += unzigzag(in.varint());
+				times[i] = previous + previousDelta;
+			}
+			previous = times[i];
+		}
+		return times;
+	}
+
+	public static byte[] encodeValues(double[] values) {
+		int scale = decimalScale(values);
+		if (scale >= 0) {
+			return encodeScaled(values, scale);
+		}
+		ByteArrayOutputStream header = new ByteArrayOutputStream(7);
+		header.write(VERSION);
+		header.write(KIND_XOR);
+		writeVarint(header, values.length);
+		BitWriter bits = new BitWriter(header.toByteArray(), 8 + values.length * 2);
+		if (values.length == 0) {
+			return bits.toByteArray();
+		}
+
+		long previous = Double.doubleToRawLongBits(values[0]);
+		bits.write(previous, 64);
+		int previousLeading = Integer.MAX_VALUE;
+		int previousTrailing = 0;
+		for (int i = 1; i < values.length; i++) {
+			long current = Double.doubleToRawLongBits(values[i]);
+			long xor = current ^ previous;
+			if (xor == 0) {
+				bits.write(0, 1);
+			} else {
+				int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+				int trailing = Long.numberOfTrailingZeros(xor);
+				if (leading >= previousLeading && trailing >= previousTrailing) {
+					// fits in the previous meaningful window
+					bits.write(0b10, 2);
+					bits.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+				} else {
+					int meaningful = 64 - leading - trailing;
+					bits.write(0b11, 2);
+					bits.write(leading, 5);
+					// 64 meaningful bits only happen with leading == 0, stored as 0 in 6 bits
+					bits.write(meaningful & 0x3f, 6);
+					bits.write(xor >>> trailing, meaningful);
+					previousLeading = leading;
+					previousTrailing = trailing;
+				}
+			}
+			previous = current;
+		}
+		return bits.toByteArray();
+	}
+
+	public static double[] decodeValues(byte[] bytes) {
+		Cursor in = new Cursor(bytes);
+		checkVersion(in.next());
+		int kind = in.next();
+		double[] values = new double[(int) in.varint()];
+		if (kind == KIND_SCALED) {
+			return decodeScaled(in, values);
+		} else if (kind != KIND_XOR) {
+			throw new IllegalArgumentException("Unsupported compact column kind " + kind);
+		}
+		if (values.length == 0) {
+			return values;
+		}
+
+		BitReader bits = new BitReader(bytes, in.position);
+		long previous = bits.read(64);
+		values[0] = Double.longBitsToDouble(previous);
+		int leading = 0;
+		int trailing = 0;
+		for (int i = 1; i < values.length; i++) {
+			if (bits.read(1) != 0) {
+				if (bits.read(1) != 0) {
+					leading = (int) bits.read(5);
+					int meaningful = (int) bits.read(6);
+					if (meaningful == 0) {
+						meaningful = 64;
+					}
+					trailing = 64 - leading - meaningful;
+				}
+				previous ^= bits.read(64 - leading - trailing) << trailing;
+			}
+			values[i] = Double.longBitsToDouble(previous);
+		}
+		return values;
+	}
+
+	/**
+	 * @return the smallest scale at which every value is exactly k / 10^scale, or -1
+	 */
+	private static int decimalScale(double[] values) {
+		for (int scale = 0; scale <= MAX_SCALE; scale++) {
+			if (isExactAtScale(values, scale)) {
+				return scale;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean isExactAtScale(double[] values, int scale) {
+		double power = POWERS_OF_TEN[scale];
+		for (double value : values) {
+			double scaled = Math.rint(value * power);
+			// also rejects NaN, infinities and -0.0, which the scaled form cannot carry
+			if (Math.abs(scaled) > 1e15
+					|| Double.doubleToRawLongBits((long) scaled / power) != Double.doubleToRawLongBits(value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static byte[] encodeScaled(double[] values, int scale) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(8 + values.length * 2);
+		out.write(VERSION);
+		out.write(KIND_SCALED);
+		writeVarint(out, values.length);
+		out.write(scale);
+		double power = POWERS_OF_TEN[scale];
+		long previous = 0;
+		for (double value : values) {
+			long current = (long) Math.rint(value * power);
+			writeVarint(out, zigzag(current - previous));
+			previous = current;
+		}
+		return out.toByteArray();
+	}
+
+	private static double[] decodeScaled(Cursor in, double[] values) {
+		int scale = in.next();
+		if (scale > MAX_SCALE) {
+			throw new IllegalArgumentException("Unsupported compact column scale " + scale);
+		}
+		double power = POWERS_OF_TEN[scale];
+		long previous = 0;
+		for (int i = 0; i < values.length; i++) {
+			previous += unzigzag(in.varint());
+			values[i] = previous / power;
+		}
+		return values;
+	}
+
+	private static AttributeValue binary(byte[] bytes) {
+		return AttributeValue.builder().b(SdkBytes.fromByteArrayUnsafe(bytes)).build();
+	}
+
+	private static void checkVersion(int version) {
+		if (version != VERSION) {
+			throw new IllegalArgumentException("Unsupported compact column version " + version);
+		}
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeVarint(ByteArrayOutputStream out, long value) {
+		while ((value & ~0x7fL) != 0) {
+			out.write((int) ((value & 0x7f) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static class Cursor {
+		private final byte[] bytes;
+		private int position;
+
+		Cursor(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		int next() {
+			if (position >= bytes.length) {
+				throw new IllegalArgumentException("Truncated compact column");
+			}
+			return bytes[position++] & 0xff;
+		}
+
+		long varint() {
+			long value = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				int b = next();
+				value |= (long) (b & 0x7f) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IllegalArgumentException("Malformed varint in compact column");
+		}
+	}
+
+	private static class BitWriter {
+		private byte[] bytes;
+		private long bitPosition;
+
+		BitWriter(byte[] header, int expectedBytes) {
+			bytes = Arrays.copyOf(header, Math.max(expectedBytes, header.length + 8));
+			bitPosition = (long) header.length * 8;
+		}
+
+		void write(long value, int count) {
+			for (int i = count - 1; i >= 0; i--) {
+				int index = (int) (bitPosition >>> 3);
+				if (index == bytes.length) {
+					bytes = Arrays.copyOf(bytes, bytes.length * 2);
+				}
+				if (((value >>> i) & 1) != 0) {
+					bytes[index] |= (byte) (0x80 >>> (bitPosition & 7));
+				}
+				bitPosition++;
+			}
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(bytes, (int) ((bitPosition + 7) >>> 3));
+		}
+	}
+
+	private static class BitReader {
+		private final byte[] bytes;
+		private long bitPosition;
+
+		BitReader(byte[] bytes, int offset) {
+			this.bytes = bytes;
+			this.bitPosition = (long) offset * 8;
+		}
+
+		long read(int count) {
+			long value = 0;
+			for (int i = 0; i < count; i++) {
+				int index = (int) (bitPosition >>> 3);
+				if (index >= bytes.length) {
+					throw new IllegalArgumentException("Truncated compact column");
+				}
+				value = (value << 1) | ((bytes[index] >>> (7 - (bitPosition & 7))) & 1);
+				bitPosition++;
+			}
+			return value;
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package com.task10;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Pull parser for the open-meteo forecast response. Reads the body stream once and fills the
+ * hourly columns of {@link Forecast} directly, without a DOM or boxed values; sections the
+ * processor does not store (current, daily, ...) are skipped.
+ */
+public final class ForecastParser {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+	private static final int INITIAL_CAPACITY = 192;
+
+	private ForecastParser() {
+	}
+
+	public static Forecast parse(InputStream body) throws IOException {
+		try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new IOException("Forecast response is not a JSON object");
+			}
+			Forecast forecast = new Forecast();
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+				switch (field) {
+					case "latitude":
+						forecast.latitude = parser.getDoubleValue();
+						break;
+					case "longitude":
+						forecast.longitude = parser.getDoubleValue();
+						break;
+					case "elevation":
+						forecast.elevation = parser.getDoubleValue();
+						break;
+					case "generationtime_ms":
+						forecast.generationTimeMs = parser.getDoubleValue();
+						break;
+					case "utc_offset_seconds":
+						forecast.utcOffsetSeconds = parser.getIntValue();
+						break;
+					case "timezone":
+						forecast.timezone = parser.getText();
+						break;
+					case "timezone_abbreviation":
+						forecast.timezoneAbbreviation = parser.getText();
+						break;
+					case "hourly":
+						parseHourly(parser, forecast);
+						break;
+					case "hourly_units":
+						parseHourlyUnits(parser, forecast);
+						break;
+					default:
+						parser.skipChildren();
+				}
+			}
+			if (forecast.hourly.isEmpty() || forecast.hourlyTime.length == 0) {
+				throw new IOException("Missing 'hourly' data in response");
+			}
+			for (Map.Entry<String, double[]> column : forecast.hourly.entrySet()) {
+				if (column.getValue().length != forecast.hourlyTime.length) {
+					throw new IOException("Hourly '" + column.getKey() + "' has " + column.getValue().length
+							+ " values for " + forecast.hourlyTime.length + " times");
+				}
+			}
+			return forecast;
+		}
+	}
+
+	private static void parseHourly(JsonParser parser, Forecast forecast) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String variable = parser.getCurrentName();
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				parser.skipChildren();
+				continue;
+			}
+			if ("time".equals(variable)) {
+				forecast.hourlyTime = readTimes(parser);
+			} else {
+				forecast.hourly.put(variable, readValues(parser));
+			}
+		}
+	}
+
+	private static void parseHourlyUnits(JsonParser parser, Forecast forecast) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String variable = parser.getCurrentName();
+			parser.nextToken();
+			forecast.hourlyUnits.put(variable, parser.getText());
+		}
+	}
+
+	private static long[] readTimes(JsonParser parser) throws IOException {
+		long[] times = new long[INITIAL_CAPACITY];
+		int size = 0;
+		JsonToken token;
+		while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+			if (size == times.length) {
+				times = Arrays.copyOf(times, size * 2);
+			}
+			// iso8601 by default, plain numbers with timeformat=unixtime
+			times[size++] = token == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : Forecast.parseTime(parser.getText());
+		}
+		return Arrays.copyOf(times, size);
+	}
+
+	private static double[] readValues(JsonParser parser) throws IOException {
+		double[] values = new double[INITIAL_CAPACITY];
+		int size = 0;
+		JsonToken token;
+		while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = token == JsonToken.VALUE_NULL ? Double.NaN : parser.getDoubleValue();
+		}
+		return Arrays.copyOf(values, size);
+	}
+}
@@ -0,0 +1,86 @@
+package com.task10;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * What was last stored per location: HTTP validators of the upstream response and the content
+ * hash of the hourly data. Kept in the container and, when state_table is set, in DynamoDB so
+ * cold containers do not rewrite an unchanged forecast either.
+ */
+public class IngestionState {
+
+	private final Supplier<DynamoDbClient> db;
+	private final String stateTable;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	public IngestionState(Supplier<DynamoDbClient> db, String stateTable) {
+		this.db = db;
+		this.stateTable = stateTable == null || stateTable.isEmpty() ? null : stateTable;
+	}
+
+	public static IngestionState fromEnv(Supplier<DynamoDbClient> db) {
+		return new IngestionState(db, System.getenv("state_table"));
+	}
+
+	public Entry get(String location) {
+		Entry entry = entries.get(location);
+		if (entry != null || stateTable == null) {
+			return entry;
+		}
+		Map<String, AttributeValue> item = db.get().getItem(GetItemRequest.builder()
+				.tableName(stateTable)
+				.key(Map.of("location", AttributeValue.builder().s(location).build()))
+				.build()).item();
+		if (item == null || item.isEmpty()) {
+			return null;
+		}
+		entry = new Entry(text(item, "etag"), text(item, "lastModified"), text(item, "contentHash"));
+		entries.put(location, entry);
+		return entry;
+	}
+
+	public void put(String location, Entry entry) {
+		entries.put(location, entry);
+		if (stateTable == null) {
+			return;
+		}
+		Map<String, AttributeValue> item = new HashMap<>();
+		item.put("location", AttributeValue.builder().s(location).build());
+		item.put("contentHash", AttributeValue.builder().s(entry.contentHash).build());
+		if (entry.etag != null) {
+			item.put("etag", AttributeValue.builder().s(entry.etag).build());
+		}
+		if (entry.lastModified != null) {
+			item.put("lastModified", AttributeValue.builder().s(entry.lastModified).build());
+		}
+		db.get().putItem(PutItemRequest.builder()
+				.tableName(stateTable)
+				.item(item)
+				.build());
+	}
+
+	private static String text(Map<String, AttributeValue> item, String name) {
+		AttributeValue value = item.get(name);
+		return value == null ? null : value.s();
+	}
+
+	public static class Entry {
+		public final String etag;
+		public final String lastModified;
+		public final String contentHash;
+
+		public Entry(String etag, String lastModified, String contentHash) {
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.contentHash = contentHash;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.task10;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coordinates to ingest. Read from the locations_table DynamoDB table (numeric latitude and
+ * longitude attributes) when it is set, otherwise from the locations variable as
+ * "lat,lon;lat,lon", falling back to Berlin.
+ */
+public class Location {
+
+	static final String DEFAULT_LOCATIONS = "52.52,13.41";
+
+	public final String latitude;
+	public final String longitude;
+
+	public Location(String latitude, String longitude) {
+		this.latitude = latitude;
+		this.longitude = longitude;
+	}
+
+	public String query() {
+		return "?latitude=" + latitude + "&longitude=" + longitude;
+	}
+
+	@Override
+	public String toString() {
+		return latitude + "," + longitude;
+	}
+
+	public static List<Location> load(DynamoDbClient db) {
+		String table = System.getenv("locations_table");
+		if (table != null && !table.isEmpty()) {
+			return fromTable(db, table);
+		}
+		String locations = System.getenv("locations");
+		return parse(locations == null || locations.isEmpty() ? DEFAULT_LOCATIONS : locations);
+	}
+
+	static List<Location> parse(String locations) {
+		List<Location> result = new ArrayList<>();
+		for (String location : locations.split(";")) {
+			String[] coordinates = location.trim().split(",");
+			if (coordinates.length != 2) {
+				throw new IllegalArgumentException("Invalid location: " + location);
+			}
+			result.add(new Location(coordinates[0].trim(), coordinates[1].trim()));
+		}
+		return result;
+	}
+
+	private static List<Location> fromTable(DynamoDbClient db, String table) {
+		List<Location> result = new ArrayList<>();
+		Map<String, AttributeValue> exclusiveStartKey = null;
+		do {
+			ScanResponse response = db.scan(ScanRequest.builder()
+					.tableName(table)
+					.exclusiveStartKey(exclusiveStartKey)
+					.build());
+			for (Map<String, AttributeValue> item : response.items()) {
+				result.add(new Location(item.get("latitude").n(), item.get("longitude").n()));
+			}
+			exclusiveStartKey = response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null;
+		} while (exclusiveStartKey != null);
+		return result;
+	}
+}
@@ -16,24 +16,24 @@ import com.syndicate.deployment.model.RetentionSetting;
 import com.syndicate.deployment.model.TracingMode;
 import com.syndicate.deployment.model.lambda.url.AuthType;
 import com.syndicate.deployment.model.lambda.url.InvokeMode;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
-import org.json.JSONObject;
-import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 
 @LambdaHandler(
@@ -57,74 +57,176 @@ import java.util.stream.Collectors;
 )
 @EnvironmentVariables(value = {
 		@EnvironmentVariable(key = "region", value = "${region}"),
-		@EnvironmentVariable(key = "table", value = "${target_table}")})
+		@EnvironmentVariable(key = "table", value = "${target_table}"),
+		@EnvironmentVariable(key = "hourly_table", value = "${target_hourly_table}"),
+		@EnvironmentVariable(key = "storage_mode", value = "forecast"),
+		@EnvironmentVariable(key = "weather_base_url", value = "https://api.open-meteo.com/v1/forecast"),
+		@EnvironmentVariable(key = "locations", value = "52.52,13.41"),
+		@EnvironmentVariable(key = "fetch_concurrency", value = "8"),
+		@EnvironmentVariable(key = "state_table", value = "${target_state_table}")})
 public class Processor implements RequestHandler<Object, Map<String, Object>> {
 
-	private static final String URL = "https://api.open-meteo.com/v1/forecast?latitude=52.52&longitude=13.41&current=temperature_2m,wind_speed_10m&hourly=temperature_2m,relative_humidity_2m,wind_speed_10m";
-	private final DynamoDbClient db = DynamoDbClient.builder()
-			.credentialsProvider(DefaultCredentialsProvider.create())
-			.region(Region.EU_WEST_1)
-			.build();
+	private static final String VARIABLES = "&current=temperature_2m,wind_speed_10m&hourly=temperature_2m,relative_humidity_2m,wind_speed_10m";
+	private static final int DEFAULT_FETCH_CONCURRENCY = 8;
 
+	private static final long INIT_STARTED_AT = System.nanoTime();
+
+	private static final ExecutorService INGESTION_EXECUTOR = Executors.newFixedThreadPool(fetchConcurrency(), runnable -> {
+		Thread thread = new Thread(runnable, "weather-ingestion");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final WeatherHttpClient weatherClient = WeatherHttpClient.fromEnv();
+	// clients are fetched on first use, a handler instance alone does not create them
+	private final Supplier<DynamoDbClient> db = AwsClients::dynamoDb;
+	private final BatchWriter batchWriter = new BatchWriter(db);
+	private final IngestionState ingestionState = IngestionState.fromEnv(db);
+
+	public Processor() {
+		Startup.INSTANCE.ready("processor", INIT_STARTED_AT);
+	}
+
+	/**
+	 * Fetches and stores the forecast of every configured location, at most fetch_concurrency at a
+	 * time. A failing location is reported in the summary and does not affect the others.
+	 * Forecasts that are unchanged since the last stored run are not written again.
+	 */
 	public Map<String, Object> handleRequest(Object request, Context context) {
 		LambdaLogger log = context.getLogger();
-		Map<String, Object> result = new HashMap<>();
-		try {
-			String weatherRaw = getWeatherData();
-			JSONObject weatherJSON = new JSONObject(weatherRaw);
-			storeWeatherData(weatherJSON);
+		long startedAt = System.currentTimeMillis();
+		List<Location> locations = Location.load(db.get());
 
+		Map<Location, Future<Outcome>> runs = new LinkedHashMap<>();
+		for (Location location : locations) {
+			runs.put(location, INGESTION_EXECUTOR.submit(() -> ingest(location)));
+		}
+
+		Map<Outcome, Integer> outcomes = new EnumMap<>(Outcome.class);
+		for (Outcome outcome : Outcome.values()) {
+			outcomes.put(outcome, 0);
+		}
+		List<Map<String, String>> failures = new ArrayList<>();
+		for (Map.Entry<Location, Future<Outcome>> run : runs.entrySet()) {
+			String error = awaitIngestion(run.getValue(), outcomes);
+			if (error != null) {
+				log.log(run.getKey() + ": " + error);
+				Map<String, String> failure = new LinkedHashMap<>();
+				failure.put("location", run.getKey().toString());
+				failure.put("error", error);
+				failures.add(failure);
+			}
+		}
+
+		Map<String, Object> result = new HashMap<>();
+		if (failures.isEmpty()) {
 			result.put("statusCode", 200);
 			result.put("message", "ALL DONE");
-		} catch (IOException e) {
-			log.log("Not able to get data from the Weather service:" + e.getMessage());
-			result.put("statusCode", 500);
-			result.put("error", "Not able to get data from the Weather service:" + e.getMessage());
-		} catch (DynamoDbException e) {
-			log.log("Not able to store data to DB:" + e.getMessage());
-			result.put("statusCode", 500);
-			result.put("error", "ot able to store data to DB:" + e.getMessage());
+		} else {
+			result.put("statusCode", failures.size() == locations.size() ? 500 : 207);
+			result.put("failures", failures);
 		}
+		result.put("locations", locations.size());
+		result.put("succeeded", locations.size() - failures.size());
+		result.put("failed", failures.size());
+		result.put("written", outcomes.get(Outcome.WRITTEN));
+		result.put("notModified", outcomes.get(Outcome.NOT_MODIFIED));
+		result.put("unchanged", outcomes.get(Outcome.UNCHANGED));
+		// store operations this run skipped because the forecast had not changed
+		result.put("writesAvoided", outcomes.get(Outcome.NOT_MODIFIED) + outcomes.get(Outcome.UNCHANGED));
+		result.put("elapsedMs", System.currentTimeMillis() - startedAt);
 		return result;
 	}
 
-	private String getWeatherData() throws IOException {
-		try (CloseableHttpClient http = HttpClients.createDefault()) {
-			HttpGet request = new HttpGet(URL);
-			HttpResponse response = http.execute(request);
-			return EntityUtils.toString(response.getEntity());
+	/**
+	 * Sends the validators of the last stored response, when upstream gave any, and compares the
+	 * content hash otherwise. State is kept per storage mode so switching modes writes once.
+	 */
+	private Outcome ingest(Location location) throws IOException {
+		StorageMode mode = StorageMode.fromEnv();
+		String stateKey = mode.name().toLowerCase() + ":" + location;
+		IngestionState.Entry previous = ingestionState.get(stateKey);
+		WeatherHttpClient.Fetch<Forecast> fetch = weatherClient.getIfChanged(location.query() + VARIABLES,
+				previous == null ? null : previous.etag,
+				previous == null ? null : previous.lastModified,
+				ForecastParser::parse);
+		if (fetch.notModified) {
+			return Outcome.NOT_MODIFIED;
+		}
+
+		Forecast forecast = fetch.body;
+		String contentHash = forecast.contentHash();
+		IngestionState.Entry current = new IngestionState.Entry(fetch.etag, fetch.lastModified, contentHash);
+		if (previous != null && contentHash.equals(previous.contentHash)) {
+			if (!Objects.equals(previous.etag, fetch.etag) || !Objects.equals(previous.lastModified, fetch.lastModified)) {
+				ingestionState.put(stateKey, current);
+			}
+			return Outcome.UNCHANGED;
+		}
+
+		if (mode == StorageMode.HOURLY) {
+			storeHourlyWeatherData(location, forecast);
+		} else if (mode == StorageMode.COMPACT) {
+			storeCompactWeatherData(forecast, forecast.runId(contentHash));
+		} else {
+			storeWeatherData(forecast, forecast.runId(contentHash));
+		}
+		ingestionState.put(stateKey, current);
+		return Outcome.WRITTEN;
+	}
+
+	private static String awaitIngestion(Future<Outcome> run, Map<Outcome, Integer> outcomes) {
+		try {
+			outcomes.merge(run.get(), 1, Integer::sum);
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			run.cancel(true);
+			return "Interrupted";
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				return "Not able to get data from the Weather service:" + cause.getMessage();
+			} else if (cause instanceof DynamoDbException) {
+				return "Not able to store data to DB:" + cause.getMessage();
+			}
+			return String.valueOf(cause);
 		}
 	}
 
-	private void storeWeatherData(JSONObject jsonObject) throws DynamoDbException {
+	private void storeWeatherData(Forecast forecast, String runId) throws DynamoDbException {
 		Map<String, AttributeValue> itemValues = new HashMap<>();
-		itemValues.put("id", AttributeValue.builder().s(UUID.randomUUID().toString()).build());
-		JSONObject hourlyJson = jsonObject.getJSONObject("hourly");
+		itemValues.put("id", AttributeValue.builder().s(runId).build());
+		double[] temperatures = forecast.hourly.get("temperature_2m");
+		if (temperatures == null) {
+			throw new IllegalStateException("Forecast has no temperature_2m column");
+		}
+		List<AttributeValue> times = new ArrayList<>(forecast.hours());
+		for (long time : forecast.hourlyTime) {
+			times.add(AttributeValue.builder().s(Forecast.formatTime(time)).build());
+		}
+		List<AttributeValue> temperatureValues = new ArrayList<>(temperatures.length);
+		for (double temperature : temperatures) {
+			temperatureValues.add(Double.isNaN(temperature)
+					? AttributeValue.builder().nul(true).build()
+					: AttributeValue.builder().n(Forecast.formatNumber(temperature)).build());
+		}
 		Map<String, AttributeValue> hourlyMap = new HashMap<>();
-		hourlyMap.put("time", AttributeValue.builder().l(
-				hourlyJson.getJSONArray("time").toList().stream()
-						.map(times -> AttributeValue.builder().s(times.toString()).build())
-						.collect(Collectors.toList())
-		).build());
-		hourlyMap.put("temperature_2m", AttributeValue.builder().l(
-				hourlyJson.getJSONArray("temperature_2m").toList().stream()
-						.map(temp -> AttributeValue.builder().n(temp.toString()).build())
-						.collect(Collectors.toList())
-		).build());
-
-		JSONObject hourlyUnitsJson = jsonObject.getJSONObject("hourly_units");
+		hourlyMap.put("time", AttributeValue.builder().l(times).build());
+		hourlyMap.put("temperature_2m", AttributeValue.builder().l(temperatureValues).build());
+
 		Map<String, AttributeValue> hourlyUnitsMap = new HashMap<>();
-		hourlyUnitsMap.put("time", AttributeValue.builder().s(hourlyUnitsJson.getString("time")).build());
-		hourlyUnitsMap.put("temperature_2m", AttributeValue.builder().s(hourlyUnitsJson.getString("temperature_2m")).build());
+		hourlyUnitsMap.put("time", AttributeValue.builder().s(forecast.hourlyUnits.get("time")).build());
+		hourlyUnitsMap.put("temperature_2m", AttributeValue.builder().s(forecast.hourlyUnits.get("temperature_2m")).build());
 
 		Map<String, AttributeValue> forecastMap = new HashMap<>();
-		forecastMap.put("elevation", AttributeValue.builder().n(String.valueOf(jsonObject.getDouble("elevation"))).build());
-		forecastMap.put("generationtime_ms", AttributeValue.builder().n(String.valueOf(jsonObject.getDouble("generationtime_ms"))).build());
-		forecastMap.put("latitude", AttributeValue.builder().n(String.valueOf(jsonObject.getDouble("latitude"))).build());
-		forecastMap.put("longitude", AttributeValue.builder().n(String.valueOf(jsonObject.getDouble("longitude"))).build());
-		forecastMap.put("timezone", AttributeValue.builder().s(jsonObject.getString("timezone")).build());
-		forecastMap.put("timezone_abbreviation", AttributeValue.builder().s(jsonObject.getString("timezone_abbreviation")).build());
-		forecastMap.put("utc_offset_seconds", AttributeValue.builder().n(String.valueOf(jsonObject.getInt("utc_offset_seconds"))).build());
+		forecastMap.put("elevation", AttributeValue.builder().n(String.valueOf(forecast.elevation)).build());
+		forecastMap.put("generationtime_ms", AttributeValue.builder().n(String.valueOf(forecast.generationTimeMs)).build());
+		forecastMap.put("latitude", AttributeValue.builder().n(String.valueOf(forecast.latitude)).build());
+		forecastMap.put("longitude", AttributeValue.builder().n(String.valueOf(forecast.longitude)).build());
+		forecastMap.put("timezone", AttributeValue.builder().s(forecast.timezone).build());
+		forecastMap.put("timezone_abbreviation", AttributeValue.builder().s(forecast.timezoneAbbreviation).build());
+		forecastMap.put("utc_offset_seconds", AttributeValue.builder().n(String.valueOf(forecast.utcOffsetSeconds)).build());
 		forecastMap.put("hourly", AttributeValue.builder().m(hourlyMap).build());
 		forecastMap.put("hourly_units", AttributeValue.builder().m(hourlyUnitsMap).build());
 
@@ -137,7 +239,92 @@ public class Processor implements RequestHandler<Object, Map<String, Object>> {
 				.tableName(tableName)
 				.item(itemValues)
 				.build();
-		db.putItem(request);
+		db.get().putItem(request);
 		System.out.println("Item inserted successfully!");
 	}
+
+	/**
+	 * Stores one item per forecast hour, keyed by location and hour, so readers can query only the
+	 * hours they need instead of loading the whole nested forecast. The key is the configured
+	 * location, not the grid point upstream snapped it to, so readers query with the coordinates
+	 * they configured.
+	 */
+	private void storeHourlyWeatherData(Location configured, Forecast forecast) throws DynamoDbException {
+		String tableName = System.getenv("hourly_table");
+		if (tableName == null) {
+			throw new IllegalStateException("Table name environment variable 'hourly_table' is not set");
+		}
+		String location = configured.toString();
+
+		List<Map<String, AttributeValue>> items = new ArrayList<>(forecast.hours());
+		for (int hour = 0; hour < forecast.hours(); hour++) {
+			Map<String, AttributeValue> item = new HashMap<>();
+			item.put("location", AttributeValue.builder().s(location).build());
+			item.put("time", AttributeValue.builder().s(Forecast.formatTime(forecast.hourlyTime[hour])).build());
+			for (Map.Entry<String, double[]> column : forecast.hourly.entrySet()) {
+				double value = column.getValue()[hour];
+				if (!Double.isNaN(value)) {
+					item.put(column.getKey(), AttributeValue.builder().n(Forecast.formatNumber(value)).build());
+				}
+			}
+			items.add(item);
+		}
+		batchWriter.putAll(tableName, items);
+		System.out.println(items.size() + " hourly items inserted for " + location);
+	}
+
+	/**
+	 * Same item layout as the forecast mode, but every hourly column is one binary attribute encoded
+	 * by {@link ForecastCodec}, instead of a list with one AttributeValue per hour. Readers detect
+	 * the format by the hourly_encoding attribute and decode with {@link ForecastCodec#decodeHourly}.
+	 */
+	private void storeCompactWeatherData(Forecast forecast, String runId) throws DynamoDbException {
+		String tableName = System.getenv("table");
+		if (tableName == null) {
+			throw new IllegalStateException("Table name environment variable 'table' is not set");
+		}
+		Map<String, AttributeValue> hourlyUnitsMap = new HashMap<>();
+		for (Map.Entry<String, String> unit : forecast.hourlyUnits.entrySet()) {
+			hourlyUnitsMap.put(unit.getKey(), AttributeValue.builder().s(unit.getValue()).build());
+		}
+
+		Map<String, AttributeValue> forecastMap = new HashMap<>();
+		forecastMap.put("elevation", AttributeValue.builder().n(String.valueOf(forecast.elevation)).build());
+		forecastMap.put("generationtime_ms", AttributeValue.builder().n(String.valueOf(forecast.generationTimeMs)).build());
+		forecastMap.put("latitude", AttributeValue.builder().n(String.valueOf(forecast.latitude)).build());
+		forecastMap.put("longitude", AttributeValue.builder().n(String.valueOf(forecast.longitude)).build());
+		forecastMap.put("timezone", AttributeValue.builder().s(forecast.timezone).build());
+		forecastMap.put("timezone_abbreviation", AttributeValue.builder().s(forecast.timezoneAbbreviation).build());
+		forecastMap.put("utc_offset_seconds", AttributeValue.builder().n(String.valueOf(forecast.utcOffsetSeconds)).build());
+		forecastMap.put("hourly", AttributeValue.builder().m(ForecastCodec.encodeHourly(forecast)).build());
+		forecastMap.put("hourly_units", AttributeValue.builder().m(hourlyUnitsMap).build());
+
+		Map<String, AttributeValue> itemValues = new HashMap<>();
+		itemValues.put("id", AttributeValue.builder().s(runId).build());
+		itemValues.put("hourly_encoding", AttributeValue.builder().s(ForecastCodec.ENCODING).build());
+		itemValues.put("forecast", AttributeValue.builder().m(forecastMap).build());
+		db.get().putItem(PutItemRequest.builder()
+				.tableName(tableName)
+				.item(itemValues)
+				.build());
+		System.out.println("Compact item inserted for " + forecast.location());
+	}
+
+	private static int fetchConcurrency() {
+		String value = System.getenv("fetch_concurrency");
+		return value == null || value.isEmpty() ? DEFAULT_FETCH_CONCURRENCY : Integer.parseInt(value);
+	}
+
+	enum Outcome {
+		WRITTEN, NOT_MODIFIED, UNCHANGED
+	}
+
+	enum StorageMode {
+		FORECAST, HOURLY, COMPACT;
+
+		static StorageMode fromEnv() {
+			String value = System.getenv("storage_mode");
+			return value == null || value.isEmpty() ? FORECAST : valueOf(value.toUpperCase());
+		}
+	}
 }
@@ -0,0 +1,53 @@
+package com.task10;
+
+import com.common.LambdaStartup;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Init-phase work of the processor: parses, hashes and encodes a small forecast once, so the
+ * parser, codec and digest classes are loaded before the first run. Before a SnapStart checkpoint
+ * it also primes the client with one GetItem for a key that does not exist.
+ */
+final class Startup extends LambdaStartup {
+
+	private static final String SAMPLE_FORECAST = "{\"latitude\":52.52,\"longitude\":13.41,\"generationtime_ms\":0.1,"
+			+ "\"utc_offset_seconds\":0,\"timezone\":\"GMT\",\"timezone_abbreviation\":\"GMT\",\"elevation\":38.0,"
+			+ "\"hourly_units\":{\"time\":\"iso8601\",\"temperature_2m\":\"°C\"},"
+			+ "\"hourly\":{\"time\":[\"2024-01-01T00:00\",\"2024-01-01T01:00\"],\"temperature_2m\":[1.5,null]}}";
+
+	static final Startup INSTANCE = new Startup();
+
+	private Startup() {
+	}
+
+	@Override
+	protected void warmUp() {
+		try {
+			Forecast forecast = ForecastParser.parse(new ByteArrayInputStream(SAMPLE_FORECAST.getBytes(StandardCharsets.UTF_8)));
+			forecast.runId(forecast.contentHash());
+			ForecastCodec.decodeHourly(ForecastCodec.encodeHourly(forecast), new Forecast());
+			Forecast.formatNumber(forecast.hourly.get("temperature_2m")[0]);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	protected void primeClients() {
+		String tableName = System.getenv("table");
+		if (tableName == null) {
+			return;
+		}
+		AwsClients.dynamoDb().getItem(GetItemRequest.builder()
+				.tableName(tableName)
+				.key(Map.of("id", AttributeValue.builder().s("-1").build()))
+				.build());
+	}
+}
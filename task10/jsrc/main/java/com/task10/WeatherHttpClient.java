@@ -0,0 +1,203 @@
+package com.task10;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContexts;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client for the open-meteo API shared by all invocations of the container. Connections are
+ * pooled and kept alive between scheduled runs, so warm invocations skip DNS, TCP and TLS setup.
+ * Responses are gzip-negotiated and handed to the caller as a stream.
+ */
+public class WeatherHttpClient {
+
+	static final String DEFAULT_BASE_URL = "https://api.open-meteo.com/v1/forecast";
+
+	private static final int CONNECT_TIMEOUT_MILLIS = 2_000;
+	private static final int SOCKET_TIMEOUT_MILLIS = 5_000;
+	private static final int POOL_TIMEOUT_MILLIS = 1_000;
+	private static final long MAX_KEEP_ALIVE_MILLIS = 55_000;
+	private static final int MAX_CONNECTIONS = 16;
+
+	private static final String CONNECT_NANOS = "weather.connect.nanos";
+	private static final String TLS_NANOS = "weather.tls.nanos";
+
+	private static final CloseableHttpClient HTTP = createClient();
+
+	private final String baseUrl;
+
+	public WeatherHttpClient(String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	public static WeatherHttpClient fromEnv() {
+		String baseUrl = System.getenv("weather_base_url");
+		return new WeatherHttpClient(baseUrl == null || baseUrl.isEmpty() ? DEFAULT_BASE_URL : baseUrl);
+	}
+
+	public String getBaseUrl() {
+		return baseUrl;
+	}
+
+	/**
+	 * Sends GET baseUrl + query and passes the response body stream to the reader.
+	 */
+	public <T> T get(String query, BodyReader<T> reader) throws IOException {
+		return getIfChanged(query, null, null, reader).body;
+	}
+
+	/**
+	 * Conditional GET: sends If-None-Match / If-Modified-Since when validators from a previous
+	 * response are known. A 304 answer is returned as not modified without a body.
+	 */
+	public <T> Fetch<T> getIfChanged(String query, String etag, String lastModified, BodyReader<T> reader) throws IOException {
+		HttpGet request = new HttpGet(baseUrl + query);
+		if (etag != null) {
+			request.setHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		}
+		if (lastModified != null) {
+			request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+		}
+		HttpClientContext context = HttpClientContext.create();
+		long startedAt = System.nanoTime();
+		try (CloseableHttpResponse response = HTTP.execute(request, context)) {
+			long headersAt = System.nanoTime();
+			int status = response.getStatusLine().getStatusCode();
+			Fetch<T> fetch = new Fetch<>(header(response, HttpHeaders.ETAG), header(response, HttpHeaders.LAST_MODIFIED));
+			if (status == 304 && (etag != null || lastModified != null)) {
+				EntityUtils.consumeQuietly(response.getEntity());
+				fetch.notModified = true;
+			} else if (status != 200) {
+				EntityUtils.consumeQuietly(response.getEntity());
+				throw new IOException("Unexpected status " + status + " from " + request.getURI());
+			} else {
+				try (InputStream body = response.getEntity().getContent()) {
+					fetch.body = reader.read(body);
+				}
+			}
+			long completedAt = System.nanoTime();
+
+			long connectNanos = nanos(context, CONNECT_NANOS);
+			long tlsNanos = nanos(context, TLS_NANOS);
+			System.out.println("weather fetch: status=" + status
+					+ " connectMs=" + millis(connectNanos - tlsNanos)
+					+ " tlsMs=" + millis(tlsNanos)
+					+ " firstByteMs=" + millis(headersAt - startedAt - connectNanos)
+					+ " bodyMs=" + millis(completedAt - headersAt)
+					+ " reusedConnection=" + (connectNanos == 0));
+			return fetch;
+		}
+	}
+
+	public static class Fetch<T> {
+		public final String etag;
+		public final String lastModified;
+		public T body;
+		public boolean notModified;
+
+		Fetch(String etag, String lastModified) {
+			this.etag = etag;
+			this.lastModified = lastModified;
+		}
+	}
+
+	@FunctionalInterface
+	public interface BodyReader<T> {
+		T read(InputStream body) throws IOException;
+	}
+
+	private static CloseableHttpClient createClient() {
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+				RegistryBuilder.<ConnectionSocketFactory>create()
+						.register("http", new TimedPlainSocketFactory())
+						.register("https", new TimedSslSocketFactory())
+						.build());
+		connectionManager.setMaxTotal(MAX_CONNECTIONS);
+		connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS);
+		connectionManager.setValidateAfterInactivity(10_000);
+
+		return HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectTimeout(CONNECT_TIMEOUT_MILLIS)
+						.setSocketTimeout(SOCKET_TIMEOUT_MILLIS)
+						.setConnectionRequestTimeout(POOL_TIMEOUT_MILLIS)
+						.setContentCompressionEnabled(true)
+						.build())
+				.setKeepAliveStrategy((response, context) -> MAX_KEEP_ALIVE_MILLIS)
+				.evictIdleConnections(MAX_KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS)
+				.build();
+	}
+
+	private static String header(CloseableHttpResponse response, String name) {
+		Header header = response.getFirstHeader(name);
+		return header == null ? null : header.getValue();
+	}
+
+	private static long nanos(HttpContext context, String attribute) {
+		Object value = context.getAttribute(attribute);
+		return value == null ? 0 : (Long) value;
+	}
+
+	private static long millis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+	private static class TimedPlainSocketFactory extends PlainConnectionSocketFactory {
+		@Override
+		public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+									InetSocketAddress localAddress, HttpContext context) throws IOException {
+			long startedAt = System.nanoTime();
+			Socket connected = super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+			context.setAttribute(CONNECT_NANOS, System.nanoTime() - startedAt);
+			return connected;
+		}
+	}
+
+	/**
+	 * connectSocket covers TCP connect plus the handshake done in createLayeredSocket,
+	 * so the TLS share is recorded separately.
+	 */
+	private static class TimedSslSocketFactory extends SSLConnectionSocketFactory {
+		TimedSslSocketFactory() {
+			super(SSLContexts.createDefault(), SSLConnectionSocketFactory.getDefaultHostnameVerifier());
+		}
+
+		@Override
+		public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+									InetSocketAddress localAddress, HttpContext context) throws IOException {
+			long startedAt = System.nanoTime();
+			Socket connected = super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+			context.setAttribute(CONNECT_NANOS, System.nanoTime() - startedAt);
+			return connected;
+		}
+
+		@Override
+		public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+			long startedAt = System.nanoTime();
+			Socket layered = super.createLayeredSocket(socket, target, port, context);
+			context.setAttribute(TLS_NANOS, System.nanoTime() - startedAt);
+			return layered;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package com.task10;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ForecastCodecTest {
+
+	@Test
+	void specialValuesRoundTripBitExact() {
+		assertRoundTrip(new double[]{1.5, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -0.0, 0.0, 2.5});
+		assertRoundTrip(new double[]{-0.0});
+		assertRoundTrip(new double[]{Double.NaN, Double.NaN});
+		assertRoundTrip(new double[]{Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE});
+	}
+
+	@Test
+	void xorWithAllSixtyFourBitsMeaningful() {
+		// 1.0 ^ this = 0x8000000000000001: no leading and no trailing zeros
+		double wide = Double.longBitsToDouble(0xBFF0000000000001L);
+		double[] values = {1.0, wide, 1.0, wide, Double.longBitsToDouble(0x3FF0000000000003L), 1.0};
+
+		assertEquals(ForecastCodec.KIND_XOR, ForecastCodec.encodeValues(values)[1]);
+		assertRoundTrip(values);
+	}
+
+	@Test
+	void decimalColumnsUseTheSmallestExactScale() {
+		assertScaled(new double[]{12, -3, 0, 7}, 0);
+		assertScaled(new double[]{21.4, 21.3, -0.5, 22}, 1);
+		assertScaled(new double[]{1, 2.5, 3.25, 4.125, 0.0625 * 16}, 3);
+		assertScaled(new double[]{1013.2, 0.0001}, 4);
+	}
+
+	@Test
+	void mixedScaleColumnsBeyondTheScaledRangeFallBackToXor() {
+		double[] values = {21.4, 0.00001, 1013.25, 0.1 + 0.2, 1e300, 3};
+
+		assertEquals(ForecastCodec.KIND_XOR, ForecastCodec.encodeValues(values)[1]);
+		assertRoundTrip(values);
+	}
+
+	@Test
+	void scaledColumnsWithSpecialValuesFallBackToXor() {
+		assertEquals(ForecastCodec.KIND_XOR, ForecastCodec.encodeValues(new double[]{21.4, Double.NaN})[1]);
+		assertEquals(ForecastCodec.KIND_XOR, ForecastCodec.encodeValues(new double[]{21.4, -0.0})[1]);
+		assertEquals(ForecastCodec.KIND_XOR, ForecastCodec.encodeValues(new double[]{1, Double.POSITIVE_INFINITY})[1]);
+		assertEquals(ForecastCodec.KIND_XOR, ForecastCodec.encodeValues(new double[]{2e15})[1]);
+	}
+
+	@Test
+	void randomValuesRoundTrip() {
+		Random random = new Random(42);
+		double[] values = new double[500];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextInt(4) == 0 ? Double.longBitsToDouble(random.nextLong()) : random.nextGaussian() * 30;
+		}
+		assertRoundTrip(values);
+	}
+
+	@Test
+	void emptyColumns() {
+		assertRoundTrip(new double[0]);
+		assertArrayEquals(new long[0], ForecastCodec.decodeTimes(ForecastCodec.encodeTimes(new long[0])));
+	}
+
+	@Test
+	void regularHourlyTimesTakeOneByteAnHour() {
+		long[] times = new long[168];
+		for (int i = 0; i < times.length; i++) {
+			times[i] = Forecast.parseTime("2024-03-31T00:00") + i * 3_600L;
+		}
+		byte[] encoded = ForecastCodec.encodeTimes(times);
+
+		assertArrayEquals(times, ForecastCodec.decodeTimes(encoded));
+		// version, 2-byte count, 5-byte first value, 2-byte first delta, then one zero byte per hour
+		assertEquals(1 + 2 + 5 + 2 + (times.length - 2), encoded.length);
+	}
+
+	@Test
+	void irregularTimesRoundTrip() {
+		long hour = 3_600;
+		long start = Forecast.parseTime("2024-10-27T00:00");
+		assertTimesRoundTrip(start, start + hour, start + 2 * hour, start + 2 * hour, start + 4 * hour, start + 3 * hour,
+				start + 15 * 60, start + 86_400 * 16);
+		assertTimesRoundTrip(-1, 0, Long.MAX_VALUE / 4, Long.MIN_VALUE / 4, 7);
+		assertTimesRoundTrip(start);
+	}
+
+	@Test
+	void hourlyMapRoundTrips() {
+		Forecast forecast = new Forecast();
+		forecast.hourlyTime = new long[]{0, 3_600, 7_200};
+		forecast.hourly.put("temperature_2m", new double[]{-1.5, Double.NaN, 0.2});
+		forecast.hourly.put("relative_humidity_2m", new double[]{80, 81, 79});
+
+		Forecast decoded = new Forecast();
+		ForecastCodec.decodeHourly(ForecastCodec.encodeHourly(forecast), decoded);
+
+		assertArrayEquals(forecast.hourlyTime, decoded.hourlyTime);
+		assertEquals(forecast.hourly.keySet(), decoded.hourly.keySet());
+		for (String variable : forecast.hourly.keySet()) {
+			assertArrayEquals(bits(forecast.hourly.get(variable)), bits(decoded.hourly.get(variable)));
+		}
+	}
+
+	@Test
+	void rejectsOtherVersionsAndTruncatedColumns() {
+		byte[] encoded = ForecastCodec.encodeValues(new double[]{1.0, Math.PI, Math.E});
+		byte[] otherVersion = encoded.clone();
+		otherVersion[0] = 2;
+
+		assertThrows(IllegalArgumentException.class, () -> ForecastCodec.decodeValues(otherVersion));
+		assertThrows(IllegalArgumentException.class, () -> ForecastCodec.decodeValues(Arrays.copyOf(encoded, encoded.length - 4)));
+	}
+
+	private static void assertScaled(double[] values, int scale) {
+		byte[] encoded = ForecastCodec.encodeValues(values);
+		assertEquals(ForecastCodec.KIND_SCALED, encoded[1]);
+		// version, kind, one-byte count, then the scale
+		assertEquals(scale, encoded[3]);
+		assertRoundTrip(values);
+	}
+
+	private static void assertRoundTrip(double[] values) {
+		assertArrayEquals(bits(values), bits(ForecastCodec.decodeValues(ForecastCodec.encodeValues(values))));
+	}
+
+	private static void assertTimesRoundTrip(long... times) {
+		assertArrayEquals(times, ForecastCodec.decodeTimes(ForecastCodec.encodeTimes(times)));
+	}
+
+	private static long[] bits(double[] values) {
+		long[] bits = new long[values.length];
+		for (int i = 0; i < values.length; i++) {
+			bits[i] = Double.doubleToRawLongBits(values[i]);
+		}
+		return bits;
+	}
+}
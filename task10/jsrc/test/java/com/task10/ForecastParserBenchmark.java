@@ -0,0 +1,103 @@
+package com.task10;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forecast response parse cost on multi-day, multi-variable bodies: the pull parser against the
+ * shape of the org.json path it replaced, a String copy of the body, a document tree and boxed
+ * lists, all ending in the same primitive columns. Run with -prof gc to compare allocations as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class ForecastParserBenchmark {
+
+	private static final String[] VARIABLES = {"temperature_2m", "relative_humidity_2m", "wind_speed_10m",
+			"precipitation", "cloud_cover", "surface_pressure", "dew_point_2m", "wind_direction_10m"};
+
+	@Param({"1", "7", "16"})
+	public int days;
+
+	@Param({"3", "8"})
+	public int variables;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private byte[] body;
+
+	@Setup
+	public void setUp() {
+		StringBuilder json = new StringBuilder("{\"latitude\":50.4375,\"longitude\":30.5,\"generationtime_ms\":0.05,"
+				+ "\"utc_offset_seconds\":0,\"timezone\":\"GMT\",\"timezone_abbreviation\":\"GMT\",\"elevation\":188.0,"
+				+ "\"current\":{\"time\":\"2024-01-01T00:00\",\"temperature_2m\":-1.5},\"hourly_units\":{\"time\":\"iso8601\"");
+		for (int v = 0; v < variables; v++) {
+			json.append(",\"").append(VARIABLES[v]).append("\":\"unit\"");
+		}
+		json.append("},\"hourly\":{\"time\":[");
+		LocalDateTime time = LocalDateTime.of(2024, 1, 1, 0, 0);
+		int hours = days * 24;
+		for (int h = 0; h < hours; h++) {
+			json.append(h == 0 ? "\"" : ",\"").append(time.plusHours(h)).append('"');
+		}
+		json.append(']');
+		for (int v = 0; v < variables; v++) {
+			json.append(",\"").append(VARIABLES[v]).append("\":[");
+			for (int h = 0; h < hours; h++) {
+				json.append(h == 0 ? "" : ",").append(Math.round(Math.sin(h + v) * 1000) / 10.0);
+			}
+			json.append(']');
+		}
+		json.append("}}");
+		body = json.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public Forecast streaming() throws IOException {
+		return ForecastParser.parse(new ByteArrayInputStream(body));
+	}
+
+	@Benchmark
+	public Forecast tree() throws IOException {
+		String text = new String(body, StandardCharsets.UTF_8);
+		JsonNode hourly = objectMapper.readTree(text).get("hourly");
+		Forecast forecast = new Forecast();
+		Iterator<Map.Entry<String, JsonNode>> fields = hourly.fields();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			List<Object> column = new ArrayList<>(field.getValue().size());
+			for (JsonNode value : field.getValue()) {
+				column.add(value.isTextual() ? value.asText() : (Object) value.doubleValue());
+			}
+			if ("time".equals(field.getKey())) {
+				forecast.hourlyTime = column.stream().mapToLong(time -> Forecast.parseTime((String) time)).toArray();
+			} else {
+				forecast.hourly.put(field.getKey(), column.stream().mapToDouble(value -> (Double) value).toArray());
+			}
+		}
+		return forecast;
+	}
+}
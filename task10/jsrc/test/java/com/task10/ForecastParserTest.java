@@ -0,0 +1,71 @@
+package com.task10;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ForecastParserTest {
+
+	@Test
+	void readsHourlyColumns() throws IOException {
+		Forecast forecast = parse("{\"latitude\":50.4375,\"longitude\":30.5,\"current\":{\"temperature_2m\":1},"
+				+ "\"hourly_units\":{\"time\":\"iso8601\",\"temperature_2m\":\"°C\"},"
+				+ "\"hourly\":{\"time\":[\"2024-01-01T00:00\",\"2024-01-01T01:00\"],\"temperature_2m\":[-1.5,null]}}");
+
+		assertEquals(50.4375, forecast.latitude);
+		assertArrayEquals(new long[]{Forecast.parseTime("2024-01-01T00:00"), Forecast.parseTime("2024-01-01T01:00")},
+				forecast.hourlyTime);
+		assertArrayEquals(new double[]{-1.5, Double.NaN}, forecast.hourly.get("temperature_2m"));
+		assertEquals("°C", forecast.hourlyUnits.get("temperature_2m"));
+	}
+
+	@Test
+	void readsUnixTimes() throws IOException {
+		Forecast forecast = parse("{\"hourly\":{\"time\":[1704067200,1704070800],\"temperature_2m\":[1,2]}}");
+
+		assertArrayEquals(new long[]{1704067200L, 1704070800L}, forecast.hourlyTime);
+	}
+
+	@Test
+	void parsesTimesLikeLocalDateTime() {
+		for (String time : new String[]{"2024-02-29T23:59", "1969-12-31T00:00", "2024-01-01T00:00:30"}) {
+			assertEquals(LocalDateTime.parse(time).toEpochSecond(ZoneOffset.UTC), Forecast.parseTime(time));
+		}
+		assertThrows(DateTimeException.class, () -> Forecast.parseTime("2023-02-29T00:00"));
+		assertThrows(DateTimeException.class, () -> Forecast.parseTime("2024-01-01T24:00"));
+	}
+
+	@Test
+	void rejectsResponsesWithoutHourlyData() {
+		assertThrows(IOException.class, () -> parse("{\"latitude\":50.4375}"));
+	}
+
+	@Test
+	void rejectsHourlyValuesWithoutTimes() {
+		assertThrows(IOException.class, () -> parse("{\"hourly\":{\"temperature_2m\":[1.5]}}"));
+	}
+
+	@Test
+	void rejectsTimesWithoutValues() {
+		assertThrows(IOException.class, () -> parse("{\"hourly\":{\"time\":[1704067200]}}"));
+	}
+
+	@Test
+	void rejectsColumnsShorterThanTheTimes() {
+		assertThrows(IOException.class, () -> parse("{\"hourly\":{\"time\":[1704067200,1704070800],"
+				+ "\"temperature_2m\":[1.5,2.0],\"wind_speed_10m\":[3.1]}}"));
+	}
+
+	private static Forecast parse(String json) throws IOException {
+		return ForecastParser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,38 @@
+package com.task10;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForecastTest {
+
+	@Test
+	void modelRunsOfTheSameHourGetTheirOwnIds() {
+		Forecast first = forecast(1.5);
+		Forecast update = forecast(2.5);
+
+		assertNotEquals(first.runId(first.contentHash()), update.runId(update.contentHash()));
+		assertTrue(first.runId(first.contentHash()).startsWith("50.4375,30.5#2024-01-01T00:00#"));
+	}
+
+	@Test
+	void identicalDataGetsTheSameId() {
+		Forecast first = forecast(1.5);
+		Forecast rerun = forecast(1.5);
+		rerun.generationTimeMs = 99;
+
+		assertEquals(first.runId(first.contentHash()), rerun.runId(rerun.contentHash()));
+	}
+
+	private static Forecast forecast(double temperature) {
+		Forecast forecast = new Forecast();
+		forecast.latitude = 50.4375;
+		forecast.longitude = 30.5;
+		forecast.hourlyTime = new long[]{Forecast.parseTime("2024-01-01T00:00"), Forecast.parseTime("2024-01-01T01:00")};
+		forecast.hourly.put("temperature_2m", new double[]{temperature, 0.5});
+		forecast.hourlyUnits.put("temperature_2m", "°C");
+		return forecast;
+	}
+}
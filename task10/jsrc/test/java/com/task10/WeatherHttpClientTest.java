@@ -0,0 +1,129 @@
+package com.task10;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the client against a local stand-in for open-meteo, plugged in through the base URL.
+ */
+class WeatherHttpClientTest {
+
+	private static final String BODY = "{\"hourly\":{\"time\":[1700000000],\"temperature_2m\":[1.5]}}";
+	private static final String ETAG = "\"v1\"";
+	private static final String LAST_MODIFIED = "Tue, 14 Nov 2023 22:00:00 GMT";
+
+	private final List<HttpExchange> exchanges = new CopyOnWriteArrayList<>();
+	private HttpServer server;
+	private WeatherHttpClient client;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/v1/forecast", this::forecast);
+		server.createContext("/v1/broken", exchange -> {
+			exchanges.add(exchange);
+			exchange.sendResponseHeaders(503, -1);
+			exchange.close();
+		});
+		server.start();
+		client = new WeatherHttpClient("http://localhost:" + server.getAddress().getPort() + "/v1/forecast");
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	void readsGzippedBodyAndValidators() throws IOException {
+		WeatherHttpClient.Fetch<String> fetch = client.getIfChanged("?latitude=50.45", null, null, WeatherHttpClientTest::read);
+
+		assertEquals(BODY, fetch.body);
+		assertEquals(ETAG, fetch.etag);
+		assertEquals(LAST_MODIFIED, fetch.lastModified);
+		assertFalse(fetch.notModified);
+		HttpExchange exchange = exchanges.get(0);
+		assertEquals("/v1/forecast?latitude=50.45", exchange.getRequestURI().toString());
+		assertTrue(exchange.getRequestHeaders().getFirst("Accept-Encoding").contains("gzip"));
+	}
+
+	@Test
+	void conditionalGetReturnsNotModified() throws IOException {
+		WeatherHttpClient.Fetch<String> fetch = client.getIfChanged("", ETAG, LAST_MODIFIED, WeatherHttpClientTest::read);
+
+		assertTrue(fetch.notModified);
+		assertNull(fetch.body);
+		assertEquals(ETAG, exchanges.get(0).getRequestHeaders().getFirst("If-None-Match"));
+		assertEquals(LAST_MODIFIED, exchanges.get(0).getRequestHeaders().getFirst("If-Modified-Since"));
+	}
+
+	@Test
+	void staleValidatorsGetTheNewBody() throws IOException {
+		WeatherHttpClient.Fetch<String> fetch = client.getIfChanged("", "\"v0\"", null, WeatherHttpClientTest::read);
+
+		assertFalse(fetch.notModified);
+		assertEquals(BODY, fetch.body);
+	}
+
+	@Test
+	void unexpectedStatusFails() {
+		WeatherHttpClient broken = new WeatherHttpClient("http://localhost:" + server.getAddress().getPort() + "/v1/broken");
+
+		IOException e = assertThrows(IOException.class, () -> broken.get("", WeatherHttpClientTest::read));
+		assertTrue(e.getMessage().contains("503"));
+	}
+
+	@Test
+	void keepsTheConnectionBetweenRequests() throws IOException {
+		client.get("", WeatherHttpClientTest::read);
+		client.get("", WeatherHttpClientTest::read);
+
+		assertEquals(2, exchanges.size());
+		assertEquals(exchanges.get(0).getRemoteAddress(), exchanges.get(1).getRemoteAddress());
+	}
+
+	private void forecast(HttpExchange exchange) throws IOException {
+		exchanges.add(exchange);
+		exchange.getRequestBody().readAllBytes();
+		exchange.getResponseHeaders().set("ETag", ETAG);
+		exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+		if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+			exchange.sendResponseHeaders(304, -1);
+			exchange.close();
+			return;
+		}
+		ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+			gzip.write(BODY.getBytes(StandardCharsets.UTF_8));
+		}
+		exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+		exchange.sendResponseHeaders(200, gzipped.size());
+		try (OutputStream body = exchange.getResponseBody()) {
+			gzipped.writeTo(body);
+		}
+	}
+
+	private static String read(InputStream body) throws IOException {
+		return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+	}
+}
@@ -2,17 +2,14 @@ package com.task11;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
-import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.syndicate.deployment.annotations.environment.EnvironmentVariable;
 import com.syndicate.deployment.annotations.environment.EnvironmentVariables;
 import com.syndicate.deployment.annotations.lambda.LambdaHandler;
 import com.syndicate.deployment.annotations.resources.DependsOn;
 import com.syndicate.deployment.model.ResourceType;
 import com.syndicate.deployment.model.RetentionSetting;
-import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserRequest;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserResponse;
@@ -26,15 +23,24 @@ import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.Put;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
 
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.syndicate.deployment.model.environment.ValueTransformer.USER_POOL_NAME_TO_CLIENT_ID;
@@ -53,63 +59,83 @@ import static com.syndicate.deployment.model.environment.ValueTransformer.USER_P
 		@EnvironmentVariable(key = "COGNITO_ID", value = "${booking_userpool}", valueTransformer = USER_POOL_NAME_TO_USER_POOL_ID),
 		@EnvironmentVariable(key = "CLIENT_ID", value = "${booking_userpool}", valueTransformer = USER_POOL_NAME_TO_CLIENT_ID),
 		@EnvironmentVariable(key = "tables_table", value = "${tables_table}"),
-		@EnvironmentVariable(key = "reservations_table", value = "${reservations_table}")
+		@EnvironmentVariable(key = "reservations_table", value = "${reservations_table}"),
+		@EnvironmentVariable(key = "reservation_slots_table", value = "${reservation_slots_table}"),
+		// part of every slot lock id, see SlotLocks; do not change once reservations exist
+		@EnvironmentVariable(key = "slot_bucket_minutes", value = "15"),
+		@EnvironmentVariable(key = "tables_cache_ttl_seconds", value = "60"),
+		@EnvironmentVariable(key = "scan_segments", value = "4"),
+		@EnvironmentVariable(key = "signup_concurrency", value = "10"),
+		@EnvironmentVariable(key = "signup_rate_per_second", value = "20"),
+		// 20 s of starts at the rate above, leaving the rest of the 25 s budget to the last users
+		@EnvironmentVariable(key = "signup_batch_max_users", value = "400")
 })
 public class ApiHandler implements RequestHandler<Map<String, Object>, Map<String, Object>> {
 
+	private static final long INIT_STARTED_AT = System.nanoTime();
+
 	private final String userPoolId = System.getenv("COGNITO_ID");
 
 	private final String clientId = System.getenv("CLIENT_ID");
-	private final CognitoIdentityProviderClient cognitoClient = CognitoIdentityProviderClient.builder()
-			.region(Region.of(System.getenv("REGION")))
-			.credentialsProvider(DefaultCredentialsProvider.create())
-			.build();
-	private final ObjectMapper objectMapper = new ObjectMapper();
-	private final DynamoDbClient dynamoDbClient = DynamoDbClient.create();
+	// clients are fetched on first use, so a route only creates the clients it calls
+	private final Supplier<CognitoIdentityProviderClient> cognitoClient = AwsClients::cognito;
+	private final TokenVerifier tokenVerifier = new TokenVerifier(
+			new CognitoJwksKeySource(TokenVerifier.cognitoIssuer(System.getenv("REGION"), userPoolId)),
+			TokenVerifier.cognitoIssuer(System.getenv("REGION"), userPoolId), clientId);
+	private final Supplier<DynamoDbClient> dynamoDbClient = AwsClients::dynamoDb;
 	private final String reservationsTableName = System.getenv("reservations_table");
+	private final String reservationSlotsTableName = System.getenv("reservation_slots_table");
 	private final String tableName = System.getenv("tables_table");
+	private final ParallelScanner parallelScanner = new ParallelScanner(dynamoDbClient, ParallelScanner.segmentsFromEnv());
+	private final TablesCatalog tablesCatalog = new TablesCatalog(this::scanAllTables, TablesCatalog.ttlSecondsFromEnv());
+	private final BatchSignup batchSignup = BatchSignup.fromEnv(
+			new CognitoUserProvisioner(AwsClients::cognitoAsync, userPoolId));
+
+	static final String TABLE_DATE_INDEX = "tableDate-index";
+	static final String DATE_INDEX = "date-index";
+	static final String TABLE_NUMBER_INDEX = "tableNumber-index";
+	static final String TABLE_DATE_ATTRIBUTE = "tableDate";
+
+	private static final int DEFAULT_PAGE_SIZE = 50;
+	private static final int MAX_PAGE_SIZE = 100;
+	// API Gateway drops the connection after 29 s whatever the function timeout, so a batch must
+	// answer within that; the margin is kept back from it to write the batch signup response
+	private static final long SIGNUP_BUDGET_MILLIS = 27_000;
+	private static final long SIGNUP_DEADLINE_MARGIN_MILLIS = 2000;
+
+	static final Router<Route> ROUTER = new Router<Route>()
+			.add("POST", "/signup", Route.open((api, request, params, context) -> api.handleSignup(request, context)))
+			.add("POST", "/signup/batch", Route.authenticated((api, request, params, context) -> api.handleSignupBatch(request, context)))
+			.add("POST", "/signin", Route.open((api, request, params, context) -> api.handleSignin(request, context)))
+			.add("GET", "/tables", Route.authenticated((api, request, params, context) -> api.handleGetTables(request)))
+			.add("POST", "/tables", Route.authenticated((api, request, params, context) -> api.handleCreateTable(request)))
+			.add("GET", "/tables/{id:digits}", Route.authenticated((api, request, params, context) -> api.handleGetTableById(params.getString("id"))))
+			.add("POST", "/reservations", Route.authenticated((api, request, params, context) -> api.handleCreateReservation(request)))
+			.add("GET", "/reservations", Route.authenticated((api, request, params, context) -> api.handleGetReservations(request)));
+
+	public ApiHandler() {
+		Startup.INSTANCE.ready("api_handler", INIT_STARTED_AT);
+	}
 
 	@Override
 	public Map<String, Object> handleRequest(Map<String, Object> request, Context context) {
-		context.getLogger().log("reg: " + System.getenv("REGION"));
-		context.getLogger().log("COGNITO_ID: " + System.getenv("COGNITO_ID"));
-		context.getLogger().log("CLIENT_ID: " + System.getenv("CLIENT_ID"));
-		context.getLogger().log("request: " + request);
-		context.getLogger().log("containsKey path: " + request.containsKey("path"));
-		context.getLogger().log("containsKey httpMethod: " + request.containsKey("httpMethod"));
 		String path = (String) request.get("path");
 		String httpMethod = (String) request.get("httpMethod");
+		context.getLogger().log(httpMethod + " " + path);
 
-		context.getLogger().log("path: " + path);
-		context.getLogger().log("httpMethod: " + httpMethod);
-
-		if ("/signup".equals(path) && "POST".equalsIgnoreCase(httpMethod)) {
-			return handleSignup(request, context);
-		} else if ("/signin".equals(path) && "POST".equalsIgnoreCase(httpMethod)) {
-			return handleSignin(request, context);
+		Router.Match<Route> match = ROUTER.match(httpMethod, path);
+		if (match == null) {
+			return createResponse(404, "Endpoint not found");
 		}
 
-		DecodedJWT decodedJWT = validateAuthorization(request);
-		if (decodedJWT == null) {
-			return createResponse(401, "Unauthorized: Invalid or missing Authorization header");
-		}
-		context.getLogger().log("Auth ok!");
-
-		if ("/tables".equals(path) && "GET".equalsIgnoreCase(httpMethod)) {
-			return handleGetTables(request);
-		} else if ("/tables".equals(path) && "POST".equalsIgnoreCase(httpMethod)) {
-			return handleCreateTable(request);
-		} else if (path.matches("/tables/\\d+") && "GET".equalsIgnoreCase(httpMethod)) {
-			return handleGetTableById(request);
-		} else if ("/reservations".equals(path) && "POST".equalsIgnoreCase(httpMethod)) {
-			return handleCreateReservation(request);
-		} else if ("/reservations".equals(path) && "GET".equalsIgnoreCase(httpMethod)) {
-			return handleGetReservations(request);
+		Route route = match.handler();
+		if (route.authenticated) {
+			DecodedJWT decodedJWT = validateAuthorization(request);
+			if (decodedJWT == null) {
+				return createResponse(401, "Unauthorized: Invalid or missing Authorization header");
+			}
 		}
-
-
-
-		return createResponse(404, "Endpoint not found");
+		return route.endpoint.handle(this, request, match, context);
 	}
 
 	private Map<String, Object> handleSignup(Map<String, Object> request, Context context) {
@@ -118,32 +144,29 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 			context.getLogger().log("body: " + request.get("body"));
 			String body = (String) request.get("body");
 
-			Map<String, Object> requestBody = objectMapper.readValue(body, Map.class);
-
-			String firstName = (String) requestBody.get("firstName");
-			String lastName = (String) requestBody.get("lastName");
-			String email = (String) requestBody.get("email");
-			String password = (String) requestBody.get("password");
+			SignUpRequest signUp = Codecs.SIGN_UP_READER.readValue(body);
 
 			// Validate input
-			if (firstName == null || lastName == null || email == null || password == null) {
+			if (!signUp.isComplete()) {
 				return createResponse(400, "Invalid input");
 			}
+			String email = signUp.email;
+			String password = signUp.password;
 
 			// Call Cognito signUp API
 
-			AdminCreateUserResponse response = cognitoClient.adminCreateUser(AdminCreateUserRequest.builder()
+			AdminCreateUserResponse response = cognitoClient.get().adminCreateUser(AdminCreateUserRequest.builder()
 					.userPoolId(userPoolId)
 					.username(email)
 					.temporaryPassword(password)
 					.userAttributes(
 							AttributeType.builder()
 									.name("given_name")
-									.value(firstName)
+									.value(signUp.firstName)
 									.build(),
 							AttributeType.builder()
 									.name("family_name")
-									.value(lastName)
+									.value(signUp.lastName)
 									.build(),
 							AttributeType.builder()
 									.name("email")
@@ -156,7 +179,7 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 			context.getLogger().log("AdminCreateUserRequest response: " + response.toString());
 
 
-			AdminSetUserPasswordResponse adminSetUserPasswordResponse =	cognitoClient.adminSetUserPassword(AdminSetUserPasswordRequest.builder()
+			AdminSetUserPasswordResponse adminSetUserPasswordResponse =	cognitoClient.get().adminSetUserPassword(AdminSetUserPasswordRequest.builder()
 					.userPoolId(userPoolId)
 					.username(email)
 					.password(password)
@@ -176,6 +199,36 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 		}
 	}
 
+	/**
+	 * POST /signup/batch {"users": [SignUpRequest, ...]}
+	 * Returns a result per user, in request order; see {@link BatchSignup} for the statuses.
+	 */
+	private Map<String, Object> handleSignupBatch(Map<String, Object> request, Context context) {
+		try {
+			SignUpBatchRequest batch = Codecs.SIGN_UP_BATCH_READER.readValue((String) request.get("body"));
+			if (batch.users == null || batch.users.isEmpty()) {
+				return createResponse(400, "Invalid input");
+			}
+			if (batch.users.size() > batchSignup.getMaxUsers()) {
+				return createResponse(400, "At most " + batchSignup.getMaxUsers() + " users per batch");
+			}
+
+			long budget = Math.min(context.getRemainingTimeInMillis(), SIGNUP_BUDGET_MILLIS);
+			long deadline = System.currentTimeMillis() + budget - SIGNUP_DEADLINE_MARGIN_MILLIS;
+			Responses.SignUpBatch result = batchSignup.run(batch.users, deadline);
+			context.getLogger().log("Batch sign-up: created=" + result.created + " failed=" + result.failed
+					+ " invalid=" + result.invalid + " skipped=" + result.skipped + " timedOut=" + result.timedOut);
+
+			return createResponse(200, Codecs.SIGN_UP_BATCH_WRITER.writeValueAsString(result));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return createResponse(500, "Batch sign-up interrupted");
+		} catch (Exception e) {
+			context.getLogger().log("Error during batch sign-up " + e.getMessage());
+			return createResponse(400, "Error during batch sign-up: " + e.getMessage());
+		}
+	}
+
 	private DecodedJWT validateAuthorization(Map<String, Object> request) {
 		try {
 			Map<String, String> headers = (Map<String, String>) request.get("headers");
@@ -190,12 +243,9 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 			}
 
 			String idToken = authorizationHeader.substring(7); // Extract the token
-			DecodedJWT jwt = JWT.decode(idToken);
-
-			return jwt;
+			return tokenVerifier.verify(idToken);
 		} catch (Exception e) {
-			System.out.println("Invalid token!!!! " + request);
-			e.printStackTrace();
+			System.out.println("Invalid token: " + e.getMessage());
 			return null;
 		}
 	}
@@ -204,73 +254,33 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 		try {
 			System.out.println("handleGetTables");
 
-			ScanResponse scanResponse = getAllTables();
-
-			List<Map<String, Object>> tables = scanResponse.items().stream()
-					.map(this::generateTable)
-					.sorted((t1, t2) -> {
-						Integer id1 = (Integer) t1.get("id");
-						Integer id2 = (Integer) t2.get("id");
-						return id1.compareTo(id2);
-					})
+			List<Table> tables = getAllTables().stream()
+					.map(Table::fromItem)
+					.sorted(Comparator.comparing(table -> table.id))
 					.collect(Collectors.toList());
 
-			// Prepare the response body
-			Map<String, Object> responseBody = new LinkedHashMap<>();
-			System.out.println("tables: " + responseBody);
-			responseBody.put("tables", tables);
-
-			return createResponse(200, objectMapper.writeValueAsString(responseBody));
+			return createResponse(200, Codecs.TABLES_WRITER.writeValueAsString(new Responses.Tables(tables)));
 		} catch (Exception e) {
 			e.printStackTrace();
 			return createResponse(400, "Error fetching tables: " + e.getMessage());
 		}
 	}
 
-	private Map<String, Object> generateTable (Map<String, AttributeValue> item) {
-		Map<String, Object> table = new LinkedHashMap<>();
-		table.put("id", Integer.parseInt(item.get("id").s()));
-		table.put("number", Integer.parseInt(item.get("number").n()));
-		table.put("places", Integer.parseInt(item.get("places").n()));
-		table.put("isVip", item.get("isVip").bool());
-		if (item.containsKey("minOrder")) {
-			table.put("minOrder", Integer.parseInt(item.get("minOrder").n()));
-		}
-		return table;
-	}
-
 	private Map<String, Object> handleCreateTable(Map<String, Object> request) {
 		try {
 			System.out.println("handleCreateTable");
 			String body = (String) request.get("body");
-			Map<String, Object> requestBody = objectMapper.readValue(body, Map.class);
-
-			Integer id = (Integer) requestBody.get("id");
-			Integer number = (Integer) requestBody.get("number");
-			Integer places = (Integer) requestBody.get("places");
-			Boolean isVip = (Boolean) requestBody.get("isVip");
-			Integer minOrder = (Integer) requestBody.get("minOrder");
-
-			Map<String, AttributeValue> item = new LinkedHashMap<>();
-			item.put("id", AttributeValue.builder().s(String.valueOf(id)).build());
-			item.put("number", AttributeValue.builder().n(String.valueOf(number)).build());
-			item.put("places", AttributeValue.builder().n(String.valueOf(places)).build());
-			item.put("isVip", AttributeValue.builder().bool(isVip).build());
-			if (minOrder != null) {
-				item.put("minOrder", AttributeValue.builder().n(String.valueOf(minOrder)).build());
-			}
+			Table table = Codecs.TABLE_READER.readValue(body);
 
 			PutItemRequest putItemRequest = PutItemRequest.builder()
 					.tableName(tableName)
-					.item(item)
+					.item(table.toItem())
 					.build();
 
-			dynamoDbClient.putItem(putItemRequest);
-
-			Map<String, Object> responseBody = new LinkedHashMap<>();
-			responseBody.put("id", id);
+			dynamoDbClient.get().putItem(putItemRequest);
+			tablesCatalog.invalidate();
 
-			return createResponse(200, objectMapper.writeValueAsString(responseBody));
+			return createResponse(200, Codecs.TABLE_ID_WRITER.writeValueAsString(new Responses.TableId(table.id)));
 		} catch (Exception e) {
 			e.printStackTrace();
 			return createResponse(400, "Error creating table: " + e.getMessage());
@@ -278,32 +288,25 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 	}
 
 
-	private Map<String, Object> handleGetTableById(Map<String, Object> request) {
+	private Map<String, Object> handleGetTableById(String tableId) {
 		try {
 			System.out.println("handleGetTableById");
-			String path = (String) request.get("path");
-			String tableId = path.split("/")[2];
 			System.out.println("tableId: " + tableId);
 			GetItemRequest getItemRequest = GetItemRequest.builder()
 					.tableName(tableName)
 					.key(Map.of("id", AttributeValue.builder().s(tableId).build()))
 					.build();
 
-			GetItemResponse getItemResponse = dynamoDbClient.getItem(getItemRequest);
+			GetItemResponse getItemResponse = dynamoDbClient.get().getItem(getItemRequest);
 
 			if (getItemResponse.item().isEmpty()) {
 				return createResponse(404, "Table not found");
 			}
 			System.out.println("Item: " + getItemResponse.item());
 
-			Map<String, AttributeValue> item = getItemResponse.item();
-
-			Map<String, Object> table = generateTable(item);
-
-
-			System.out.println("Converted table: " + table);
+			Table table = Table.fromItem(getItemResponse.item());
 
-			return createResponse(200, objectMapper.writeValueAsString(table));
+			return createResponse(200, Codecs.TABLE_WRITER.writeValueAsString(table));
 		} catch (Exception e) {
 			e.printStackTrace();
 			return createResponse(400, "Error fetching table: " + e.getMessage());
@@ -314,22 +317,19 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 		try {
 			// Parse the request body
 			String body = (String) request.get("body");
-			Map<String, String> requestBody = objectMapper.readValue(body, Map.class);
-
-			String email = requestBody.get("email");
-			String password = requestBody.get("password");
+			SignInRequest signIn = Codecs.SIGN_IN_READER.readValue(body);
 
 			// Validate input
-			if (email == null || password == null) {
+			if (!signIn.isComplete()) {
 				return createResponse(400, "Invalid input");
 			}
 
 			// Call Cognito initiateAuth API
 			Map<String, String> authParams = new HashMap<>();
-			authParams.put("USERNAME", email);
-			authParams.put("PASSWORD", password);
+			authParams.put("USERNAME", signIn.email);
+			authParams.put("PASSWORD", signIn.password);
 
-			AdminInitiateAuthResponse adminInitiateAuthRequest = cognitoClient.adminInitiateAuth(AdminInitiateAuthRequest.builder()
+			AdminInitiateAuthResponse adminInitiateAuthRequest = cognitoClient.get().adminInitiateAuth(AdminInitiateAuthRequest.builder()
 					.authFlow(AuthFlowType.ADMIN_NO_SRP_AUTH)
 					.authParameters(authParams)
 					.userPoolId(userPoolId)
@@ -344,10 +344,7 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 			}
 			String idToken = adminInitiateAuthRequest.authenticationResult().idToken();
 
-			Map<String, String> responseBody = new HashMap<>();
-			responseBody.put("idToken", idToken);
-
-			return createResponse(200, objectMapper.writeValueAsString(responseBody));
+			return createResponse(200, Codecs.SIGN_IN_WRITER.writeValueAsString(new Responses.SignIn(idToken)));
 		} catch (Exception e) {
 			e.printStackTrace();
 			return createResponse(400, "Error during sign-in: " + e.getMessage());
@@ -359,126 +356,157 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 		try {
 			// Parse the request body
 			String body = (String) request.get("body");
-			Map<String, Object> requestBody = objectMapper.readValue(body, Map.class);
-
-			Integer tableNumber = (Integer) requestBody.get("tableNumber");
-			String clientName = (String) requestBody.get("clientName");
-			String phoneNumber = (String) requestBody.get("phoneNumber");
-			String date = (String) requestBody.get("date");
-			String slotTimeStart = (String) requestBody.get("slotTimeStart");
-			String slotTimeEnd = (String) requestBody.get("slotTimeEnd");
-
-			ScanResponse tables = getAllTables();
-			System.out.println("tables: " + tables);
-			boolean exists = tables.items().stream()
-					.anyMatch(item -> {
-						Integer tableNum = Integer.parseInt(item.get("number").n());
-						return tableNum.equals(tableNumber);
-					});
-
-			if (!exists) {
+			Reservation reservation = Codecs.RESERVATION_READER.readValue(body);
+			Integer tableNumber = reservation.tableNumber;
+
+			boolean tableExists = tablesCatalog.containsNumber(tableNumber);
+			System.out.println("tables catalog: " + tablesCatalog);
+			if (!tableExists) {
 				return createResponse(400, "Table with number is not exist: " + tableNumber);
 			}
 
 			// Validate input
-			if (clientName == null || phoneNumber == null || date == null || slotTimeStart == null || slotTimeEnd == null) {
+			if (!reservation.isComplete()) {
 				return createResponse(400, "Invalid input");
 			}
 
 //			// Generate a UUID for the reservation
 			UUID reservationId = UUID.randomUUID();
 
-			// Check for conflicting reservations
-			ScanRequest scanRequest = ScanRequest.builder()
-					.tableName(reservationsTableName)
-					.build();
-
-			ScanResponse scanResponse = dynamoDbClient.scan(scanRequest);
-			List<Map<String, AttributeValue>> existingReservations = scanResponse.items();
-
-			for (Map<String, AttributeValue> reservation : existingReservations) {
-				int existingTableNumber = Integer.parseInt(reservation.get("tableNumber").n());
-				String existingDate = reservation.get("date").s();
-				String existingStart = reservation.get("slotTimeStart").s();
-				String existingEnd = reservation.get("slotTimeEnd").s();
+			// Add the reservation to DynamoDB
+			Map<String, AttributeValue> item = reservation.toItem(reservationId.toString());
+
+			// Insert the reservation together with its slot locks, a taken slot cancels the whole transaction
+			List<TransactWriteItem> writes = new ArrayList<>();
+			writes.add(TransactWriteItem.builder()
+					.put(Put.builder()
+							.tableName(reservationsTableName)
+							.item(item)
+							.conditionExpression("attribute_not_exists(id)")
+							.build())
+					.build());
+			for (SlotLocks.Lock lock : SlotLocks.locks(tableNumber, reservation.date, reservation.slotTimeStart, reservation.slotTimeEnd)) {
+				writes.add(TransactWriteItem.builder()
+						.update(SlotLocks.lockUpdate(reservationSlotsTableName, lock, reservationId.toString()))
+						.build());
+			}
 
-				if (tableNumber.equals(existingTableNumber) && date.equals(existingDate) &&
-						isTimeConflict(slotTimeStart, slotTimeEnd, existingStart, existingEnd)) {
+			try {
+				dynamoDbClient.get().transactWriteItems(TransactWriteItemsRequest.builder()
+						.transactItems(writes)
+						.build());
+			} catch (TransactionCanceledException e) {
+				boolean slotTaken = e.cancellationReasons().stream()
+						.anyMatch(reason -> "ConditionalCheckFailed".equals(reason.code()));
+				if (slotTaken) {
 					return createResponse(400, "Conflicting reservation exists for table " + tableNumber);
 				}
+				throw e;
 			}
 
-
-			// Add the reservation to DynamoDB
-			Map<String, AttributeValue> item = new LinkedHashMap<>();
-			item.put("id", AttributeValue.builder().s(reservationId.toString()).build());
-			item.put("tableNumber", AttributeValue.builder().n(String.valueOf(tableNumber)).build());
-			item.put("clientName", AttributeValue.builder().s(clientName).build());
-			item.put("phoneNumber", AttributeValue.builder().s(phoneNumber).build());
-			item.put("date", AttributeValue.builder().s(date).build());
-			item.put("slotTimeStart", AttributeValue.builder().s(slotTimeStart).build());
-			item.put("slotTimeEnd", AttributeValue.builder().s(slotTimeEnd).build());
-
-			PutItemRequest putItemRequest = PutItemRequest.builder()
-					.tableName(reservationsTableName)
-					.item(item)
-					.build();
-
-			dynamoDbClient.putItem(putItemRequest);
-
-			Map<String, Object> responseBody = new LinkedHashMap<>();
-			responseBody.put("reservationId", reservationId.toString());
-
-			return createResponse(200, objectMapper.writeValueAsString(responseBody));
+			return createResponse(200, Codecs.RESERVATION_ID_WRITER.writeValueAsString(new Responses.ReservationId(reservationId.toString())));
 		} catch (Exception e) {
 			e.printStackTrace();
 			return createResponse(400, "Error creating reservation: " + e.getMessage());
 		}
 	}
 
+	/**
+	 * GET /reservations?date=&tableNumber=&limit=&nextToken=
+	 * Returns one page of at most limit reservations. The date and tableNumber filters are served by
+	 * the GSIs of the reservations table, without filters the table is scanned page by page.
+	 * Items are written in index order straight into the response body.
+	 */
 	private Map<String, Object> handleGetReservations(Map<String, Object> request) {
 		try {
 			System.out.println("handleGetReservations");
-			ScanRequest scanRequest = ScanRequest.builder()
-					.tableName(reservationsTableName)
-					.build();
-
-			ScanResponse scanResponse = dynamoDbClient.scan(scanRequest);
-
-			List<Map<String, AttributeValue>> items  = scanResponse.items();
-			System.out.println("Items count: " + scanResponse.count());
-			System.out.println("Items: " + items);
-
-			List<Map<String, Object>> reservations = items.stream()
-					.map(item -> {
-						Map<String, Object> reservation = new LinkedHashMap<>();
-						reservation.put("tableNumber", Integer.parseInt(item.get("tableNumber").n()));
-						reservation.put("clientName", item.get("clientName").s());
-						reservation.put("phoneNumber", item.get("phoneNumber").s());
-						reservation.put("date", item.get("date").s());
-						reservation.put("slotTimeStart", item.get("slotTimeStart").s());
-						reservation.put("slotTimeEnd", item.get("slotTimeEnd").s());
-						return reservation;
-					})
-					.sorted((r1, r2) -> {
-						int tableNumber1 = (int) r1.get("tableNumber");
-						int tableNumber2 = (int) r2.get("tableNumber");
-						return Integer.compare(tableNumber1, tableNumber2);
-					})
-					.collect(Collectors.toList());
-
-			Map<String, Object> responseBody = new LinkedHashMap<>();
-			responseBody.put("reservations", reservations);
-			System.out.println("return reservations: " + responseBody);
-			return createResponse(200, objectMapper.writeValueAsString(responseBody));
+			Map<String, String> queryParameters = (Map<String, String>) request.get("queryStringParameters");
+			if (queryParameters == null) {
+				queryParameters = Map.of();
+			}
+			String date = queryParameters.get("date");
+			String tableNumber = queryParameters.get("tableNumber");
+			int limit = parseLimit(queryParameters.get("limit"));
+			Map<String, AttributeValue> exclusiveStartKey = PageTokens.decode(queryParameters.get("nextToken"));
+
+			List<Map<String, AttributeValue>> items;
+			Map<String, AttributeValue> lastEvaluatedKey;
+			if (date == null && tableNumber == null) {
+				ScanResponse scanResponse = dynamoDbClient.get().scan(ScanRequest.builder()
+						.tableName(reservationsTableName)
+						.limit(limit)
+						.exclusiveStartKey(exclusiveStartKey)
+						.build());
+				items = scanResponse.items();
+				lastEvaluatedKey = scanResponse.hasLastEvaluatedKey() ? scanResponse.lastEvaluatedKey() : null;
+			} else {
+				QueryResponse queryResponse = dynamoDbClient.get().query(reservationsQuery(date, tableNumber)
+						.limit(limit)
+						.exclusiveStartKey(exclusiveStartKey)
+						.build());
+				items = queryResponse.items();
+				lastEvaluatedKey = queryResponse.hasLastEvaluatedKey() ? queryResponse.lastEvaluatedKey() : null;
+			}
+			System.out.println("Items count: " + items.size());
+
+			StringWriter responseBody = new StringWriter();
+			try (JsonGenerator generator = Codecs.MAPPER.getFactory().createGenerator(responseBody)) {
+				generator.writeStartObject();
+				generator.writeArrayFieldStart("reservations");
+				for (Map<String, AttributeValue> item : items) {
+					Codecs.RESERVATION_WRITER.writeValue(generator, Reservation.fromItem(item));
+				}
+				generator.writeEndArray();
+				String nextToken = PageTokens.encode(lastEvaluatedKey);
+				if (nextToken != null) {
+					generator.writeStringField("nextToken", nextToken);
+				}
+				generator.writeEndObject();
+			}
+			return createResponse(200, responseBody.toString());
 		} catch (Exception e) {
 			e.printStackTrace();
 			return createResponse(400, "Error fetching reservations: " + e.getMessage());
 		}
 	}
 
-	private boolean isTimeConflict(String start1, String end1, String start2, String end2) {
-		return (start1.compareTo(end2) < 0 && end1.compareTo(start2) > 0);
+	private QueryRequest.Builder reservationsQuery(String date, String tableNumber) {
+		if (date != null && tableNumber != null) {
+			return QueryRequest.builder()
+					.tableName(reservationsTableName)
+					.indexName(TABLE_DATE_INDEX)
+					.keyConditionExpression(TABLE_DATE_ATTRIBUTE + " = :tableDate")
+					.expressionAttributeValues(Map.of(":tableDate",
+							AttributeValue.builder().s(tableDateKey(Integer.parseInt(tableNumber), date)).build()));
+		} else if (date != null) {
+			return QueryRequest.builder()
+					.tableName(reservationsTableName)
+					.indexName(DATE_INDEX)
+					.keyConditionExpression("#date = :date")
+					.expressionAttributeNames(Map.of("#date", "date"))
+					.expressionAttributeValues(Map.of(":date", AttributeValue.builder().s(date).build()));
+		}
+		return QueryRequest.builder()
+				.tableName(reservationsTableName)
+				.indexName(TABLE_NUMBER_INDEX)
+				.keyConditionExpression("tableNumber = :tableNumber")
+				.expressionAttributeValues(Map.of(":tableNumber",
+						AttributeValue.builder().n(String.valueOf(Integer.parseInt(tableNumber))).build()));
+	}
+
+	private int parseLimit(String limit) {
+		if (limit == null) {
+			return DEFAULT_PAGE_SIZE;
+		}
+		int value = Integer.parseInt(limit);
+		if (value < 1 || value > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+		}
+		return value;
+	}
+
+	static String tableDateKey(Integer tableNumber, String date) {
+		return tableNumber + "#" + date;
 	}
 
 
@@ -498,11 +526,41 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 		return response;
 	}
 
-	public ScanResponse getAllTables() {
-		ScanRequest scanRequest = ScanRequest.builder()
-				.tableName(tableName)
-				.build();
+	public List<Map<String, AttributeValue>> getAllTables() {
+		List<Map<String, AttributeValue>> items = tablesCatalog.tables();
+		System.out.println("tables catalog: " + tablesCatalog);
+		return items;
+	}
+
+	private List<Map<String, AttributeValue>> scanAllTables() {
+		List<Map<String, AttributeValue>> items = new ArrayList<>();
+		try (ParallelScanner.ParallelScan scan = parallelScanner.scan(tableName)) {
+			scan.forEachRemaining(items::add);
+			System.out.println("tables scan: " + scan);
+		}
+		return items;
+	}
+
+	@FunctionalInterface
+	private interface Endpoint {
+		Map<String, Object> handle(ApiHandler api, Map<String, Object> request, Router.Match<Route> params, Context context);
+	}
+
+	private static final class Route {
+		private final boolean authenticated;
+		private final Endpoint endpoint;
 
-		return dynamoDbClient.scan(scanRequest);
+		private Route(boolean authenticated, Endpoint endpoint) {
+			this.authenticated = authenticated;
+			this.endpoint = endpoint;
+		}
+
+		static Route open(Endpoint endpoint) {
+			return new Route(false, endpoint);
+		}
+
+		static Route authenticated(Endpoint endpoint) {
+			return new Route(true, endpoint);
+		}
 	}
 }
@@ -1,50 +1,129 @@
-package com.task11;
-
-import java.util.LinkedHashMap;
-import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-
-import java.util.Map;
-import java.util.stream.Collectors;
-
-public class AttributeValueToJsonConverter {
-
-
-  public static Map<String, Object> convertAttributeValueMap(Map<String, AttributeValue> attributeValueMap) {
-    return attributeValueMap.entrySet().stream()
-        .collect(Collectors.toMap(
-            Map.Entry::getKey,
-            entry -> convertAttributeValue(entry.getValue()),
-            (existing, replacement) -> existing,
-            LinkedHashMap::new
-        ));
-  }
-
-  private static Object convertAttributeValue(AttributeValue attributeValue) {
-    if (attributeValue.s() != null) {
-      return attributeValue.s();
-    } else if (attributeValue.n() != null) {
-      return Integer.valueOf(attributeValue.n()); // Convert number to Double
-    } else if (attributeValue.bool() != null) {
-      return attributeValue.bool();
-    } else if (attributeValue.hasM()) {
-      return convertAttributeValueMap(attributeValue.m());
-    } else if (attributeValue.hasL()) {
-      return attributeValue.l().stream()
-          .map(AttributeValueToJsonConverter::convertAttributeValue)
-          .collect(Collectors.toList());
-    } else if (attributeValue.hasSs()) {
-      return attributeValue.ss();
-    } else if (attributeValue.hasNs()) {
-      return attributeValue.ns().stream()
-          .map(Double::valueOf)
-          .collect(Collectors.toList());
-    } else if (attributeValue.hasBs()) {
-      return attributeValue.bs().stream()
-          .map(b -> b.asUtf8String())
-          .collect(Collectors.toList());
-    } else if (attributeValue.nul() != null && attributeValue.nul()) {
-      return null; // Handle null values
-    }
-    return null; // Default case for unsupported types
-  }
-}
\ No newline at end of file
+package com.task11;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class AttributeValueToJsonConverter {
+
+  // callers own the stream: the generator flushes it on close but leaves it open
+  private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+      .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+      .build();
+
+  /**
+   * Writes the item as a JSON object straight to the stream, without building an intermediate
+   * Map/List tree. Numbers are written as their exact DynamoDB decimal text, binaries as base64.
+   * The stream is flushed but not closed, so more output can follow.
+   */
+  public static void writeAttributeValueMap(Map<String, AttributeValue> attributeValueMap, OutputStream out) throws IOException {
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+      writeAttributeValueMap(attributeValueMap, generator);
+    }
+  }
+
+  public static void writeAttributeValueMap(Map<String, AttributeValue> attributeValueMap, JsonGenerator generator) throws IOException {
+    generator.writeStartObject();
+    for (Map.Entry<String, AttributeValue> entry : attributeValueMap.entrySet()) {
+      generator.writeFieldName(entry.getKey());
+      writeAttributeValue(entry.getValue(), generator);
+    }
+    generator.writeEndObject();
+  }
+
+  public static void writeAttributeValue(AttributeValue attributeValue, JsonGenerator generator) throws IOException {
+    if (attributeValue.s() != null) {
+      generator.writeString(attributeValue.s());
+    } else if (attributeValue.n() != null) {
+      // DynamoDB numbers are already valid JSON number literals, copy the text as is
+      generator.writeNumber(attributeValue.n());
+    } else if (attributeValue.b() != null) {
+      writeBinary(attributeValue.b(), generator);
+    } else if (attributeValue.bool() != null) {
+      generator.writeBoolean(attributeValue.bool());
+    } else if (attributeValue.hasM()) {
+      writeAttributeValueMap(attributeValue.m(), generator);
+    } else if (attributeValue.hasL()) {
+      generator.writeStartArray();
+      for (AttributeValue element : attributeValue.l()) {
+        writeAttributeValue(element, generator);
+      }
+      generator.writeEndArray();
+    } else if (attributeValue.hasSs()) {
+      generator.writeStartArray();
+      for (String element : attributeValue.ss()) {
+        generator.writeString(element);
+      }
+      generator.writeEndArray();
+    } else if (attributeValue.hasNs()) {
+      generator.writeStartArray();
+      for (String element : attributeValue.ns()) {
+        generator.writeNumber(element);
+      }
+      generator.writeEndArray();
+    } else if (attributeValue.hasBs()) {
+      generator.writeStartArray();
+      for (SdkBytes element : attributeValue.bs()) {
+        writeBinary(element, generator);
+      }
+      generator.writeEndArray();
+    } else {
+      // NULL and unsupported types
+      generator.writeNull();
+    }
+  }
+
+  private static void writeBinary(SdkBytes bytes, JsonGenerator generator) throws IOException {
+    generator.writeBinary(bytes.asByteArrayUnsafe());
+  }
+
+  public static Map<String, Object> convertAttributeValueMap(Map<String, AttributeValue> attributeValueMap) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    for (Map.Entry<String, AttributeValue> entry : attributeValueMap.entrySet()) {
+      result.put(entry.getKey(), convertAttributeValue(entry.getValue()));
+    }
+    return result;
+  }
+
+  private static Object convertAttributeValue(AttributeValue attributeValue) {
+    if (attributeValue.s() != null) {
+      return attributeValue.s();
+    } else if (attributeValue.n() != null) {
+      return new BigDecimal(attributeValue.n()); // Lossless for any DynamoDB number
+    } else if (attributeValue.b() != null) {
+      return Base64.getEncoder().encodeToString(attributeValue.b().asByteArrayUnsafe());
+    } else if (attributeValue.bool() != null) {
+      return attributeValue.bool();
+    } else if (attributeValue.hasM()) {
+      return convertAttributeValueMap(attributeValue.m());
+    } else if (attributeValue.hasL()) {
+      return attributeValue.l().stream()
+          .map(AttributeValueToJsonConverter::convertAttributeValue)
+          .collect(Collectors.toList());
+    } else if (attributeValue.hasSs()) {
+      return attributeValue.ss();
+    } else if (attributeValue.hasNs()) {
+      return attributeValue.ns().stream()
+          .map(BigDecimal::new)
+          .collect(Collectors.toList());
+    } else if (attributeValue.hasBs()) {
+      return attributeValue.bs().stream()
+          .map(b -> Base64.getEncoder().encodeToString(b.asByteArrayUnsafe()))
+          .collect(Collectors.toList());
+    } else if (attributeValue.nul() != null && attributeValue.nul()) {
+      return null; // Handle null values
+    }
+    return null; // Default case for unsupported types
+  }
+}
@@ -0,0 +1,54 @@
+package com.task11;
+
+import com.common.ClientDefaults;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+/**
+ * SDK clients of the API, configured by {@link ClientDefaults}. Each client is created on first
+ * use through a holder class, so code paths that do not need a client never pay for it. That
+ * matters most for the async Cognito client: its Netty event loop is only started by the batch
+ * signup.
+ */
+public final class AwsClients {
+
+	private static final String REGION_VARIABLE = "REGION";
+	private static final int ASYNC_MAX_CONCURRENCY = 50;
+
+	private AwsClients() {
+	}
+
+	public static DynamoDbClient dynamoDb() {
+		return DynamoDbHolder.CLIENT;
+	}
+
+	public static CognitoIdentityProviderClient cognito() {
+		return CognitoHolder.CLIENT;
+	}
+
+	public static CognitoIdentityProviderAsyncClient cognitoAsync() {
+		return CognitoAsyncHolder.CLIENT;
+	}
+
+	private static final class DynamoDbHolder {
+		static final DynamoDbClient CLIENT = ClientDefaults.configure(DynamoDbClient.builder(), REGION_VARIABLE).build();
+	}
+
+	private static final class CognitoHolder {
+		static final CognitoIdentityProviderClient CLIENT = ClientDefaults.configure(
+				CognitoIdentityProviderClient.builder(), REGION_VARIABLE).build();
+	}
+
+	private static final class CognitoAsyncHolder {
+		static final CognitoIdentityProviderAsyncClient CLIENT = CognitoIdentityProviderAsyncClient.builder()
+				.region(ClientDefaults.region(REGION_VARIABLE))
+				.credentialsProvider(ClientDefaults.credentials())
+				.httpClientBuilder(NettyNioAsyncHttpClient.builder()
+						.connectionTimeout(ClientDefaults.CONNECT_TIMEOUT)
+						.readTimeout(ClientDefaults.SOCKET_TIMEOUT)
+						.maxConcurrency(ASYNC_MAX_CONCURRENCY))
+				.build();
+	}
+}
@@ -0,0 +1,154 @@
+package com.task11;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * POST /signup/batch: provisions a list of users concurrently.
+ *
+ * At most concurrency users are in flight at once, and new ones start no faster than the token
+ * bucket allows; each user costs one AdminCreateUser and one AdminSetUserPassword call, so the
+ * rate is in users per second and should stay below the lower of the two Cognito quotas.
+ * Users that cannot start before the deadline are reported as skipped rather than cut off halfway.
+ */
+public class BatchSignup {
+
+	public static final String CREATED = "created";
+	public static final String FAILED = "failed";
+	public static final String INVALID = "invalid";
+	public static final String SKIPPED = "skipped";
+	public static final String TIMEOUT = "timeout";
+
+	private static final int DEFAULT_CONCURRENCY = 10;
+	private static final int DEFAULT_RATE_PER_SECOND = 20;
+	// keeps a full batch at the default rate well inside the 29 s API Gateway timeout
+	private static final int DEFAULT_MAX_USERS = 400;
+
+	private final UserProvisioner provisioner;
+	private final int concurrency;
+	private final TokenBucket rateLimiter;
+	private final int maxUsers;
+
+	public BatchSignup(UserProvisioner provisioner, int concurrency, TokenBucket rateLimiter, int maxUsers) {
+		this.provisioner = provisioner;
+		this.concurrency = concurrency;
+		this.rateLimiter = rateLimiter;
+		this.maxUsers = maxUsers;
+	}
+
+	public static BatchSignup fromEnv(UserProvisioner provisioner) {
+		int concurrency = intFromEnv("signup_concurrency", DEFAULT_CONCURRENCY);
+		return new BatchSignup(provisioner, concurrency,
+				new TokenBucket(intFromEnv("signup_rate_per_second", DEFAULT_RATE_PER_SECOND), concurrency),
+				intFromEnv("signup_batch_max_users", DEFAULT_MAX_USERS));
+	}
+
+	public int getMaxUsers() {
+		return maxUsers;
+	}
+
+	/**
+	 * @param deadlineMillis wall clock time after which no user is started and waiting stops
+	 * @return one result per user, in request order, and the count of every status
+	 */
+	public Responses.SignUpBatch run(List<SignUpRequest> users, long deadlineMillis) throws InterruptedException {
+		AtomicReferenceArray<Responses.SignUpResult> results = new AtomicReferenceArray<>(users.size());
+		List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+		Semaphore permits = new Semaphore(concurrency);
+
+		for (int i = 0; i < users.size(); i++) {
+			SignUpRequest user = users.get(i);
+			String email = user == null ? null : user.email;
+			if (user == null || !user.isComplete()) {
+				results.set(i, new Responses.SignUpResult(email, INVALID, "Invalid input"));
+				continue;
+			}
+			if (remaining(deadlineMillis) == 0 || !permits.tryAcquire(remaining(deadlineMillis), TimeUnit.MILLISECONDS)) {
+				results.set(i, new Responses.SignUpResult(email, SKIPPED, "Deadline reached"));
+				continue;
+			}
+			if (!rateLimiter.acquire(deadlineMillis)) {
+				permits.release();
+				results.set(i, new Responses.SignUpResult(email, SKIPPED, "Deadline reached"));
+				continue;
+			}
+
+			int index = i;
+			CompletableFuture<Void> provisioned;
+			try {
+				provisioned = provisioner.provision(user);
+			} catch (RuntimeException e) {
+				provisioned = CompletableFuture.failedFuture(e);
+			}
+			inFlight.add(provisioned.whenComplete((ignored, error) -> {
+				results.set(index, error == null
+						? new Responses.SignUpResult(email, CREATED, null)
+						: new Responses.SignUpResult(email, FAILED, message(error)));
+				permits.release();
+			}));
+		}
+
+		try {
+			CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+					.get(remaining(deadlineMillis), TimeUnit.MILLISECONDS);
+		} catch (ExecutionException | TimeoutException e) {
+			// failures are recorded per user, timeouts below
+		}
+
+		List<Responses.SignUpResult> ordered = new ArrayList<>(users.size());
+		for (int i = 0; i < users.size(); i++) {
+			Responses.SignUpResult result = results.get(i);
+			ordered.add(result != null ? result
+					: new Responses.SignUpResult(users.get(i).email, TIMEOUT, "Still in progress at the deadline"));
+		}
+		return summarize(ordered);
+	}
+
+	static Responses.SignUpBatch summarize(List<Responses.SignUpResult> results) {
+		int created = 0;
+		int failed = 0;
+		int invalid = 0;
+		int skipped = 0;
+		int timedOut = 0;
+		for (Responses.SignUpResult result : results) {
+			switch (result.status) {
+				case CREATED:
+					created++;
+					break;
+				case FAILED:
+					failed++;
+					break;
+				case INVALID:
+					invalid++;
+					break;
+				case SKIPPED:
+					skipped++;
+					break;
+				default:
+					timedOut++;
+			}
+		}
+		return new Responses.SignUpBatch(created, failed, invalid, skipped, timedOut, results);
+	}
+
+	private static long remaining(long deadlineMillis) {
+		return Math.max(0, deadlineMillis - System.currentTimeMillis());
+	}
+
+	private static String message(Throwable error) {
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		return cause.getMessage();
+	}
+
+	private static int intFromEnv(String name, int defaultValue) {
+		String value = System.getenv(name);
+		return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+	}
+}
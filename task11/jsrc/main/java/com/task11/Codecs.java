@@ -0,0 +1,34 @@
+package com.task11;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Readers and writers for the request and response types, built once per container.
+ * ObjectReader/ObjectWriter are immutable and resolve their (de)serializers up front,
+ * so handlers skip the per-call type lookup of ObjectMapper.readValue/writeValueAsString.
+ */
+public final class Codecs {
+
+	public static final ObjectMapper MAPPER = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+	public static final ObjectReader TABLE_READER = MAPPER.readerFor(Table.class);
+	public static final ObjectReader RESERVATION_READER = MAPPER.readerFor(Reservation.class);
+	public static final ObjectReader SIGN_UP_READER = MAPPER.readerFor(SignUpRequest.class);
+	public static final ObjectReader SIGN_IN_READER = MAPPER.readerFor(SignInRequest.class);
+	public static final ObjectReader SIGN_UP_BATCH_READER = MAPPER.readerFor(SignUpBatchRequest.class);
+
+	public static final ObjectWriter TABLE_WRITER = MAPPER.writerFor(Table.class);
+	public static final ObjectWriter TABLES_WRITER = MAPPER.writerFor(Responses.Tables.class);
+	public static final ObjectWriter RESERVATION_WRITER = MAPPER.writerFor(Reservation.class);
+	public static final ObjectWriter TABLE_ID_WRITER = MAPPER.writerFor(Responses.TableId.class);
+	public static final ObjectWriter RESERVATION_ID_WRITER = MAPPER.writerFor(Responses.ReservationId.class);
+	public static final ObjectWriter SIGN_IN_WRITER = MAPPER.writerFor(Responses.SignIn.class);
+	public static final ObjectWriter SIGN_UP_BATCH_WRITER = MAPPER.writerFor(Responses.SignUpBatch.class);
+
+	private Codecs() {
+	}
+}
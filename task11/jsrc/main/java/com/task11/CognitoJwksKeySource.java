@@ -0,0 +1,78 @@
+package com.task11;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the public JWKS document of a Cognito user pool.
+ */
+public class CognitoJwksKeySource implements JwksKeySource {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(3);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HttpClient httpClient = HttpClient.newBuilder()
+			.connectTimeout(TIMEOUT)
+			.build();
+	private final URI jwksUri;
+
+	public CognitoJwksKeySource(String issuer) {
+		this.jwksUri = URI.create(issuer + "/.well-known/jwks.json");
+	}
+
+	@Override
+	public Map<String, RSAPublicKey> loadKeys() throws IOException {
+		HttpRequest request = HttpRequest.newBuilder(jwksUri)
+				.timeout(TIMEOUT)
+				.GET()
+				.build();
+		HttpResponse<InputStream> response;
+		try {
+			response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while loading " + jwksUri, e);
+		}
+		try (InputStream body = response.body()) {
+			if (response.statusCode() != 200) {
+				throw new IOException("Unexpected status " + response.statusCode() + " from " + jwksUri);
+			}
+			return parseKeys(objectMapper.readTree(body));
+		}
+	}
+
+	static Map<String, RSAPublicKey> parseKeys(JsonNode jwks) throws IOException {
+		Map<String, RSAPublicKey> keys = new HashMap<>();
+		try {
+			KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+			for (JsonNode key : jwks.path("keys")) {
+				if (!"RSA".equals(key.path("kty").asText())) {
+					continue;
+				}
+				BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("n").asText()));
+				BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("e").asText()));
+				keys.put(key.path("kid").asText(),
+						(RSAPublicKey) keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+			}
+		} catch (GeneralSecurityException e) {
+			throw new IOException("Invalid JWKS key", e);
+		}
+		return keys;
+	}
+}
@@ -0,0 +1,48 @@
+package com.task11;
+
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminSetUserPasswordRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * The AdminCreateUser + AdminSetUserPassword pair of POST /signup, chained on the async client so
+ * many users can be in flight without a thread each. The client is looked up on first use, so
+ * handlers can hold a provisioner without starting the async HTTP client.
+ */
+public class CognitoUserProvisioner implements UserProvisioner {
+
+	private final Supplier<CognitoIdentityProviderAsyncClient> cognito;
+	private final String userPoolId;
+
+	public CognitoUserProvisioner(Supplier<CognitoIdentityProviderAsyncClient> cognito, String userPoolId) {
+		this.cognito = cognito;
+		this.userPoolId = userPoolId;
+	}
+
+	@Override
+	public CompletableFuture<Void> provision(SignUpRequest user) {
+		CognitoIdentityProviderAsyncClient cognito = this.cognito.get();
+		return cognito.adminCreateUser(AdminCreateUserRequest.builder()
+						.userPoolId(userPoolId)
+						.username(user.email)
+						.temporaryPassword(user.password)
+						.userAttributes(
+								AttributeType.builder().name("given_name").value(user.firstName).build(),
+								AttributeType.builder().name("family_name").value(user.lastName).build(),
+								AttributeType.builder().name("email").value(user.email).build())
+						.messageAction("SUPPRESS")
+						.forceAliasCreation(Boolean.FALSE)
+						.build())
+				.thenCompose(created -> cognito.adminSetUserPassword(AdminSetUserPasswordRequest.builder()
+						.userPoolId(userPoolId)
+						.username(user.email)
+						.password(user.password)
+						.permanent(true)
+						.build()))
+				.thenApply(updated -> null);
+	}
+}
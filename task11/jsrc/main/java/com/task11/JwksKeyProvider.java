@@ -0,0 +1,64 @@
+package com.task11;
+
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Public keys cached by kid for the lifetime of the container. The key set is loaded on first use
+ * and reloaded only when a token names a kid we have not seen (Cognito key rotation), at most
+ * once per {@link #MIN_REFRESH_INTERVAL_MILLIS} so forged kids cannot hammer the JWKS endpoint.
+ * Only successful loads count towards that interval: after a failed load the next token retries.
+ */
+public class JwksKeyProvider implements RSAKeyProvider {
+
+	static final long MIN_REFRESH_INTERVAL_MILLIS = 60_000;
+
+	private final JwksKeySource keySource;
+	private final Map<String, RSAPublicKey> keys = new ConcurrentHashMap<>();
+	private volatile long lastRefreshAt;
+
+	public JwksKeyProvider(JwksKeySource keySource) {
+		this.keySource = keySource;
+	}
+
+	@Override
+	public RSAPublicKey getPublicKeyById(String keyId) {
+		RSAPublicKey key = keys.get(keyId);
+		if (key == null && refresh()) {
+			key = keys.get(keyId);
+		}
+		return key;
+	}
+
+	@Override
+	public RSAPrivateKey getPrivateKey() {
+		return null;
+	}
+
+	@Override
+	public String getPrivateKeyId() {
+		return null;
+	}
+
+	private synchronized boolean refresh() {
+		long now = System.currentTimeMillis();
+		if (lastRefreshAt != 0 && now - lastRefreshAt < MIN_REFRESH_INTERVAL_MILLIS) {
+			return false;
+		}
+		try {
+			Map<String, RSAPublicKey> loaded = keySource.loadKeys();
+			keys.putAll(loaded);
+			keys.keySet().retainAll(loaded.keySet());
+			lastRefreshAt = now;
+			return true;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to load JWKS", e);
+		}
+	}
+}
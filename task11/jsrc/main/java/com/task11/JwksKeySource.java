@@ -0,0 +1,14 @@
+package com.task11;
+
+import java.io.IOException;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Map;
+
+/**
+ * Source of the RSA signing keys of the user pool, keyed by kid. Production reads the Cognito JWKS
+ * endpoint, tests can plug in a locally generated key set.
+ */
+public interface JwksKeySource {
+
+	Map<String, RSAPublicKey> loadKeys() throws IOException;
+}
@@ -0,0 +1,54 @@
+package com.task11;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque pagination cursor: the LastEvaluatedKey of a query or scan written as
+ * {"attr": {"S": "..."}} JSON and base64url encoded. Only S and N key attributes are
+ * supported, which covers every table and index key in this service.
+ */
+public final class PageTokens {
+
+	private static final TypeReference<Map<String, Map<String, String>>> TOKEN_TYPE = new TypeReference<>() {
+	};
+
+	private PageTokens() {
+	}
+
+	public static String encode(Map<String, AttributeValue> lastEvaluatedKey) throws IOException {
+		if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+			return null;
+		}
+		Map<String, Map<String, String>> token = new LinkedHashMap<>();
+		for (Map.Entry<String, AttributeValue> entry : lastEvaluatedKey.entrySet()) {
+			AttributeValue value = entry.getValue();
+			token.put(entry.getKey(), value.s() != null ? Map.of("S", value.s()) : Map.of("N", value.n()));
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(Codecs.MAPPER.writeValueAsBytes(token));
+	}
+
+	public static Map<String, AttributeValue> decode(String nextToken) {
+		if (nextToken == null || nextToken.isEmpty()) {
+			return null;
+		}
+		try {
+			Map<String, Map<String, String>> token = Codecs.MAPPER.readValue(Base64.getUrlDecoder().decode(nextToken), TOKEN_TYPE);
+			Map<String, AttributeValue> key = new LinkedHashMap<>();
+			for (Map.Entry<String, Map<String, String>> entry : token.entrySet()) {
+				Map<String, String> value = entry.getValue();
+				key.put(entry.getKey(), value.containsKey("S")
+						? AttributeValue.builder().s(value.get("S")).build()
+						: AttributeValue.builder().n(value.get("N")).build());
+			}
+			return key;
+		} catch (IOException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid nextToken");
+		}
+	}
+}
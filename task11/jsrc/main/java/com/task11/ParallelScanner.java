@@ -0,0 +1,266 @@
+package com.task11;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Full-table reads with DynamoDB parallel scan. Every segment is scanned page by page on a shared,
+ * bounded executor and hands its pages to the caller through a small queue, so at most
+ * a couple of pages per segment are held in memory no matter how large the table is.
+ *
+ * Segments only pay off on large tables: a table whose previous scan returned fewer than
+ * SINGLE_SCAN_MAX_ITEMS items is read with one plain scan instead of one request per segment.
+ */
+public class ParallelScanner {
+
+	static final int DEFAULT_SEGMENTS = 4;
+	// about what one 1 MB scan page holds for the small items of this API
+	static final long SINGLE_SCAN_MAX_ITEMS = 1000;
+	private static final int MAX_THREADS = 16;
+
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(MAX_THREADS, runnable -> {
+		Thread thread = new Thread(runnable, "parallel-scan");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Supplier<DynamoDbClient> dynamoDbClient;
+	private final int totalSegments;
+	private final Map<String, Long> lastItemCounts = new ConcurrentHashMap<>();
+
+	public ParallelScanner(Supplier<DynamoDbClient> dynamoDbClient, int totalSegments) {
+		if (totalSegments < 1) {
+			throw new IllegalArgumentException("totalSegments must be positive");
+		}
+		this.dynamoDbClient = dynamoDbClient;
+		this.totalSegments = totalSegments;
+	}
+
+	public static int segmentsFromEnv() {
+		String value = System.getenv("scan_segments");
+		return value == null || value.isEmpty() ? DEFAULT_SEGMENTS : Integer.parseInt(value);
+	}
+
+	/**
+	 * Starts scanning all segments of the table. The returned scan must be closed, closing it
+	 * before the end cancels the remaining segment reads.
+	 */
+	public ParallelScan scan(String tableName) {
+		Long lastItemCount = lastItemCounts.get(tableName);
+		int segments = lastItemCount != null && lastItemCount < SINGLE_SCAN_MAX_ITEMS ? 1 : totalSegments;
+		ParallelScan scan = new ParallelScan(segments, items -> lastItemCounts.put(tableName, items));
+		for (int segment = 0; segment < segments; segment++) {
+			int currentSegment = segment;
+			scan.futures.add(EXECUTOR.submit(() -> scanSegment(tableName, currentSegment, scan)));
+		}
+		return scan;
+	}
+
+	private void scanSegment(String tableName, int segment, ParallelScan scan) {
+		int segments = scan.totalSegments;
+		SegmentMetrics metrics = scan.metrics.get(segment);
+		long startedAt = System.nanoTime();
+		try {
+			Map<String, AttributeValue> exclusiveStartKey = null;
+			do {
+				ScanResponse scanResponse = dynamoDbClient.get().scan(ScanRequest.builder()
+						.tableName(tableName)
+						.segment(segments > 1 ? segment : null)
+						.totalSegments(segments > 1 ? segments : null)
+						.returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+						.exclusiveStartKey(exclusiveStartKey)
+						.build());
+
+				metrics.pages++;
+				metrics.items += scanResponse.count();
+				if (scanResponse.consumedCapacity() != null && scanResponse.consumedCapacity().capacityUnits() != null) {
+					metrics.consumedCapacity += scanResponse.consumedCapacity().capacityUnits();
+				}
+				metrics.elapsedNanos = System.nanoTime() - startedAt;
+				scan.queue.put(new Page(scanResponse.items(), null));
+
+				exclusiveStartKey = scanResponse.hasLastEvaluatedKey() ? scanResponse.lastEvaluatedKey() : null;
+			} while (exclusiveStartKey != null);
+			scan.queue.put(Page.END);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Throwable e) {
+			// Errors too: a segment that ends without a page would leave the consumer waiting forever
+			try {
+				scan.queue.put(new Page(null, e));
+			} catch (InterruptedException interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Iterator over the merged segment pages. Items arrive in no particular order.
+	 */
+	public static class ParallelScan implements Iterator<Map<String, AttributeValue>>, AutoCloseable {
+
+		private final int totalSegments;
+		private final LongConsumer onComplete;
+		private final BlockingQueue<Page> queue;
+		private final List<Future<?>> futures = new ArrayList<>();
+		private final List<SegmentMetrics> metrics = new ArrayList<>();
+
+		private Iterator<Map<String, AttributeValue>> current = Collections.emptyIterator();
+		private int finishedSegments;
+
+		ParallelScan(int totalSegments, LongConsumer onComplete) {
+			this.totalSegments = totalSegments;
+			this.onComplete = onComplete;
+			// Producers block once every segment has two pages waiting for the consumer
+			this.queue = new ArrayBlockingQueue<>(totalSegments * 2);
+			for (int segment = 0; segment < totalSegments; segment++) {
+				metrics.add(new SegmentMetrics(segment));
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!current.hasNext() && finishedSegments < totalSegments) {
+				Page page;
+				try {
+					page = queue.take();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					close();
+					throw new IllegalStateException("Interrupted while waiting for scan results", e);
+				}
+				if (page.error != null) {
+					close();
+					if (page.error instanceof Error) {
+						throw (Error) page.error;
+					}
+					if (page.error instanceof RuntimeException) {
+						throw (RuntimeException) page.error;
+					}
+					throw new IllegalStateException("Segment scan failed", page.error);
+				}
+				if (page == Page.END) {
+					if (++finishedSegments == totalSegments) {
+						onComplete.accept(itemCount());
+					}
+				} else {
+					current = page.items.iterator();
+				}
+			}
+			return current.hasNext();
+		}
+
+		@Override
+		public Map<String, AttributeValue> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return current.next();
+		}
+
+		public List<SegmentMetrics> metrics() {
+			return Collections.unmodifiableList(metrics);
+		}
+
+		@Override
+		public void close() {
+			futures.forEach(future -> future.cancel(true));
+		}
+
+		public int getTotalSegments() {
+			return totalSegments;
+		}
+
+		private long itemCount() {
+			long items = 0;
+			for (SegmentMetrics segment : metrics) {
+				items += segment.items;
+			}
+			return items;
+		}
+
+		@Override
+		public String toString() {
+			long items = itemCount();
+			double consumedCapacity = 0;
+			for (SegmentMetrics segment : metrics) {
+				consumedCapacity += segment.consumedCapacity;
+			}
+			return "ParallelScan{segments=" + totalSegments + ", items=" + items
+					+ ", consumedCapacity=" + consumedCapacity + ", perSegment=" + metrics + "}";
+		}
+	}
+
+	public static class SegmentMetrics {
+		private final int segment;
+		private volatile long pages;
+		private volatile long items;
+		private volatile double consumedCapacity;
+		private volatile long elapsedNanos;
+
+		SegmentMetrics(int segment) {
+			this.segment = segment;
+		}
+
+		public int getSegment() {
+			return segment;
+		}
+
+		public long getPages() {
+			return pages;
+		}
+
+		public long getItems() {
+			return items;
+		}
+
+		public double getConsumedCapacity() {
+			return consumedCapacity;
+		}
+
+		public long getElapsedMillis() {
+			return elapsedNanos / 1_000_000;
+		}
+
+		public double getItemsPerSecond() {
+			return elapsedNanos == 0 ? 0 : items * 1_000_000_000d / elapsedNanos;
+		}
+
+		@Override
+		public String toString() {
+			return "{segment=" + segment + ", pages=" + pages + ", items=" + items
+					+ ", consumedCapacity=" + consumedCapacity + ", elapsedMillis=" + getElapsedMillis()
+					+ ", itemsPerSecond=" + Math.round(getItemsPerSecond()) + "}";
+		}
+	}
+
+	private static class Page {
+		private static final Page END = new Page(Collections.emptyList(), null);
+
+		private final List<Map<String, AttributeValue>> items;
+		private final Throwable error;
+
+		Page(List<Map<String, AttributeValue>> items, Throwable error) {
+			this.items = items;
+			this.error = error;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.task11;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class Reservation {
+	public Integer tableNumber;
+	public String clientName;
+	public String phoneNumber;
+	public String date;
+	public String slotTimeStart;
+	public String slotTimeEnd;
+
+	public static Reservation fromItem(Map<String, AttributeValue> item) {
+		Reservation reservation = new Reservation();
+		reservation.tableNumber = Integer.parseInt(item.get("tableNumber").n());
+		reservation.clientName = item.get("clientName").s();
+		reservation.phoneNumber = item.get("phoneNumber").s();
+		reservation.date = item.get("date").s();
+		reservation.slotTimeStart = item.get("slotTimeStart").s();
+		reservation.slotTimeEnd = item.get("slotTimeEnd").s();
+		return reservation;
+	}
+
+	public boolean isComplete() {
+		return tableNumber != null && clientName != null && phoneNumber != null && date != null
+				&& slotTimeStart != null && slotTimeEnd != null;
+	}
+
+	public Map<String, AttributeValue> toItem(String id) {
+		Map<String, AttributeValue> item = new LinkedHashMap<>();
+		item.put("id", AttributeValue.builder().s(id).build());
+		item.put("tableNumber", AttributeValue.builder().n(String.valueOf(tableNumber)).build());
+		item.put("clientName", AttributeValue.builder().s(clientName).build());
+		item.put("phoneNumber", AttributeValue.builder().s(phoneNumber).build());
+		item.put("date", AttributeValue.builder().s(date).build());
+		item.put("slotTimeStart", AttributeValue.builder().s(slotTimeStart).build());
+		item.put("slotTimeEnd", AttributeValue.builder().s(slotTimeEnd).build());
+		item.put(ApiHandler.TABLE_DATE_ATTRIBUTE, AttributeValue.builder().s(ApiHandler.tableDateKey(tableNumber, date)).build());
+		return item;
+	}
+}
@@ -0,0 +1,116 @@
+package com.task11;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-off backfill for reservations created before the tableDate-index GSI and the slot locks
+ * existed. Items without tableDate are invisible to the index and items without locks would not
+ * block overlapping bookings in {@link ApiHandler}, so this has to run before the new version
+ * takes traffic.
+ *
+ * Existing reservations that overlap are not resolved here: the lock of the second one fails its
+ * condition, nothing of it is written and it is reported as a collision to be fixed by hand.
+ *
+ * Usage: java -cp task11-1.0.0.jar com.task11.ReservationIndexMigration &lt;reservations table&gt; &lt;slots table&gt;
+ */
+public class ReservationIndexMigration {
+
+	private final DynamoDbClient dynamoDbClient;
+	private final String reservationsTableName;
+	private final String reservationSlotsTableName;
+
+	public ReservationIndexMigration(DynamoDbClient dynamoDbClient, String reservationsTableName, String reservationSlotsTableName) {
+		this.dynamoDbClient = dynamoDbClient;
+		this.reservationsTableName = reservationsTableName;
+		this.reservationSlotsTableName = reservationSlotsTableName;
+	}
+
+	public static void main(String[] args) {
+		String table = args.length > 0 ? args[0] : System.getenv("reservations_table");
+		String slotsTable = args.length > 1 ? args[1] : System.getenv("reservation_slots_table");
+		if (table == null || slotsTable == null) {
+			throw new IllegalArgumentException("Reservations and reservation slots table names must be set");
+		}
+		Result result = new ReservationIndexMigration(DynamoDbClient.create(), table, slotsTable).run();
+		System.out.println("Backfilled " + result.updated + " reservations");
+		if (!result.collisions.isEmpty()) {
+			System.out.println(result.collisions.size() + " reservations overlap an earlier one and were not locked:");
+			result.collisions.forEach(System.out::println);
+		}
+	}
+
+	/**
+	 * Walks the whole table with a parallel scan, sets tableDate and writes the slot locks of each reservation.
+	 * Safe to re-run: both writes are idempotent.
+	 */
+	public Result run() {
+		Result result = new Result();
+		try (ParallelScanner.ParallelScan scan = new ParallelScanner(() -> dynamoDbClient, ParallelScanner.segmentsFromEnv())
+				.scan(reservationsTableName)) {
+			while (scan.hasNext()) {
+				backfill(scan.next(), result);
+			}
+			System.out.println("reservations scan: " + scan);
+		}
+		return result;
+	}
+
+	private void backfill(Map<String, AttributeValue> item, Result result) {
+		Integer tableNumber = Integer.parseInt(item.get("tableNumber").n());
+		String date = item.get("date").s();
+
+		UpdateItemRequest updateItemRequest = UpdateItemRequest.builder()
+				.tableName(reservationsTableName)
+				.key(Map.of("id", item.get("id")))
+				.updateExpression("SET " + ApiHandler.TABLE_DATE_ATTRIBUTE + " = :tableDate")
+				.conditionExpression("attribute_exists(id)")
+				.expressionAttributeValues(Map.of(":tableDate",
+						AttributeValue.builder().s(ApiHandler.tableDateKey(tableNumber, date)).build()))
+				.build();
+		try {
+			dynamoDbClient.updateItem(updateItemRequest);
+		} catch (ConditionalCheckFailedException e) {
+			// Reservation was deleted while the migration was running
+			return;
+		}
+		result.updated++;
+
+		// all locks of a reservation or none, like a new booking
+		String reservationId = item.get("id").s();
+		String slotTimeStart = item.get("slotTimeStart").s();
+		String slotTimeEnd = item.get("slotTimeEnd").s();
+		List<TransactWriteItem> locks = new ArrayList<>();
+		for (SlotLocks.Lock lock : SlotLocks.locks(tableNumber, date, slotTimeStart, slotTimeEnd)) {
+			locks.add(TransactWriteItem.builder()
+					.update(SlotLocks.lockUpdate(reservationSlotsTableName, lock, reservationId))
+					.build());
+		}
+		try {
+			dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder()
+					.transactItems(locks)
+					.build());
+		} catch (TransactionCanceledException e) {
+			boolean slotTaken = e.cancellationReasons().stream()
+					.anyMatch(reason -> "ConditionalCheckFailed".equals(reason.code()));
+			if (!slotTaken) {
+				throw e;
+			}
+			result.collisions.add(reservationId + ": table " + tableNumber + ", " + date + " " + slotTimeStart + "-" + slotTimeEnd);
+		}
+	}
+
+	public static final class Result {
+		public long updated;
+		public final List<String> collisions = new ArrayList<>();
+	}
+}
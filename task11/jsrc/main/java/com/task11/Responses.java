@@ -0,0 +1,74 @@
+package com.task11;
+
+import java.util.List;
+
+/**
+ * Response bodies of the booking API.
+ */
+public final class Responses {
+
+	private Responses() {
+	}
+
+	public static class Tables {
+		public final List<Table> tables;
+
+		public Tables(List<Table> tables) {
+			this.tables = tables;
+		}
+	}
+
+	public static class TableId {
+		public final Integer id;
+
+		public TableId(Integer id) {
+			this.id = id;
+		}
+	}
+
+	public static class ReservationId {
+		public final String reservationId;
+
+		public ReservationId(String reservationId) {
+			this.reservationId = reservationId;
+		}
+	}
+
+	public static class SignIn {
+		public final String idToken;
+
+		public SignIn(String idToken) {
+			this.idToken = idToken;
+		}
+	}
+
+	public static class SignUpResult {
+		public final String email;
+		public final String status;
+		public final String error;
+
+		public SignUpResult(String email, String status, String error) {
+			this.email = email;
+			this.status = status;
+			this.error = error;
+		}
+	}
+
+	public static class SignUpBatch {
+		public final int created;
+		public final int failed;
+		public final int invalid;
+		public final int skipped;
+		public final int timedOut;
+		public final List<SignUpResult> results;
+
+		public SignUpBatch(int created, int failed, int invalid, int skipped, int timedOut, List<SignUpResult> results) {
+			this.created = created;
+			this.failed = failed;
+			this.invalid = invalid;
+			this.skipped = skipped;
+			this.timedOut = timedOut;
+			this.results = results;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package com.task11;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Path-segment trie for request dispatch. Routes are registered once, e.g. "/tables/{id:digits}",
+ * and matching walks the request path in place: no regex, no split, and the only allocations are
+ * the match itself and string path parameters.
+ *
+ * Supported parameter types are {name} / {name:string} and {name:digits}, one or more ASCII digits
+ * kept as written ("/tables/007" gives "007"). Static segments win over parameters on the same level.
+ *
+ * Matching is exact, like the equals/regex chain it replaced: the path must start with '/', and
+ * empty segments (trailing or duplicate slashes) match nothing.
+ */
+public class Router<H> {
+
+	private static final int MAX_PARAMS = 4;
+
+	private final Node<H> root = new Node<>(null);
+
+	public Router<H> add(String method, String pattern, H handler) {
+		Node<H> node = root;
+		int params = 0;
+		for (String segment : pattern.split("/")) {
+			if (!segment.isEmpty()) {
+				node = node.child(segment);
+				if (node.paramName != null && ++params > MAX_PARAMS) {
+					throw new IllegalArgumentException("Too many path parameters in " + pattern);
+				}
+			}
+		}
+		node.handlers.put(method.toUpperCase(Locale.ROOT), handler);
+		return this;
+	}
+
+	/**
+	 * @return the matched handler with its path parameters, or null when no route matches
+	 */
+	public Match<H> match(String method, String path) {
+		if (method == null || path == null) {
+			return null;
+		}
+		Node<H> node = root;
+		Match<H> match = new Match<>();
+		int length = path.length();
+		int position = 0;
+		while (position < length) {
+			if (path.charAt(position) != '/') {
+				return null;
+			}
+			int start = position + 1;
+			int end = path.indexOf('/', start);
+			if (end < 0) {
+				end = length;
+			}
+			if (end == start) {
+				return null;
+			}
+
+			Node<H> next = node.staticChild(path, start, end);
+			if (next == null) {
+				next = node.paramChild;
+				if (next == null) {
+					return null;
+				}
+				String value = next.paramType.parse(path, start, end);
+				if (value == null) {
+					return null;
+				}
+				match.add(next.paramName, value);
+			}
+			node = next;
+			position = end;
+		}
+
+		H handler = node.handlers.get(method.toUpperCase(Locale.ROOT));
+		if (handler == null) {
+			return null;
+		}
+		match.handler = handler;
+		return match;
+	}
+
+	public static class Match<H> {
+		private H handler;
+		private String[] names;
+		private String[] values;
+		private int size;
+
+		public H handler() {
+			return handler;
+		}
+
+		public String getString(String name) {
+			for (int i = 0; i < size; i++) {
+				if (names[i].equals(name)) {
+					return values[i];
+				}
+			}
+			throw new IllegalArgumentException("No path parameter " + name);
+		}
+
+		private void add(String name, String value) {
+			if (names == null) {
+				names = new String[MAX_PARAMS];
+				values = new String[MAX_PARAMS];
+			}
+			names[size] = name;
+			values[size] = value;
+			size++;
+		}
+	}
+
+	private enum ParamType {
+		STRING {
+			@Override
+			String parse(String path, int start, int end) {
+				return path.substring(start, end);
+			}
+		},
+		DIGITS {
+			@Override
+			String parse(String path, int start, int end) {
+				for (int i = start; i < end; i++) {
+					char c = path.charAt(i);
+					if (c < '0' || c > '9') {
+						return null;
+					}
+				}
+				return path.substring(start, end);
+			}
+		};
+
+		/**
+		 * @return the parameter value of path[start, end), or null when the segment does not fit the type
+		 */
+		abstract String parse(String path, int start, int end);
+	}
+
+	private static class Node<H> {
+		private final String segment;
+		private final List<Node<H>> staticChildren = new ArrayList<>();
+		private final Map<String, H> handlers = new HashMap<>();
+		private Node<H> paramChild;
+		private String paramName;
+		private ParamType paramType;
+
+		Node(String segment) {
+			this.segment = segment;
+		}
+
+		Node<H> child(String segment) {
+			if (segment.startsWith("{") && segment.endsWith("}")) {
+				String[] definition = segment.substring(1, segment.length() - 1).split(":");
+				ParamType type = definition.length > 1 ? ParamType.valueOf(definition[1].toUpperCase(Locale.ROOT)) : ParamType.STRING;
+				if (paramChild == null) {
+					paramChild = new Node<>(null);
+					paramChild.paramName = definition[0];
+					paramChild.paramType = type;
+				} else if (!paramChild.paramName.equals(definition[0]) || paramChild.paramType != type) {
+					throw new IllegalArgumentException("Conflicting path parameter " + segment);
+				}
+				return paramChild;
+			}
+			for (Node<H> child : staticChildren) {
+				if (child.segment.equals(segment)) {
+					return child;
+				}
+			}
+			Node<H> child = new Node<>(segment);
+			staticChildren.add(child);
+			return child;
+		}
+
+		Node<H> staticChild(String path, int start, int end) {
+			int length = end - start;
+			for (Node<H> child : staticChildren) {
+				if (child.segment.length() == length && path.regionMatches(start, child.segment, 0, length)) {
+					return child;
+				}
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package com.task11;
+
+public class SignInRequest {
+	public String email;
+	public String password;
+
+	public boolean isComplete() {
+		return email != null && password != null;
+	}
+}
@@ -0,0 +1,7 @@
+package com.task11;
+
+import java.util.List;
+
+public class SignUpBatchRequest {
+	public List<SignUpRequest> users;
+}
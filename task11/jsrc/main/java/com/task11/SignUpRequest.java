@@ -0,0 +1,12 @@
+package com.task11;
+
+public class SignUpRequest {
+	public String firstName;
+	public String lastName;
+	public String email;
+	public String password;
+
+	public boolean isComplete() {
+		return firstName != null && lastName != null && email != null && password != null;
+	}
+}
@@ -0,0 +1,111 @@
+package com.task11;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps a reservation onto the minutes it occupies. Minutes are grouped into fixed-size buckets
+ * and every bucket is one item in the reservation slots table, holding one attribute per taken
+ * minute ("m605" = 10:05) whose value is the reservation id. A reservation writes its minutes
+ * with attribute_not_exists conditions, so two overlapping reservations of the same table can
+ * never both commit, while back-to-back ones (10:00-10:10 and 10:10-10:20) share a bucket
+ * without conflict.
+ *
+ * The bucket size only decides how minutes are grouped into items, but it is part of every lock
+ * id: changing slot_bucket_minutes once locks exist makes new reservations miss the old locks.
+ * It is pinned in the handler configuration for that reason.
+ */
+public final class SlotLocks {
+
+	static final int DEFAULT_BUCKET_MINUTES = 15;
+
+	// TransactWriteItems accepts 100 actions, one of them is the reservation itself
+	static final int MAX_LOCKS_PER_RESERVATION = 99;
+
+	private static final int BUCKET_MINUTES = readBucketMinutes();
+
+	private SlotLocks() {
+	}
+
+	/**
+	 * Locks for [slotTimeStart, slotTimeEnd), one per bucket touched. Only sub-minute parts of
+	 * the slot times are rounded outward.
+	 */
+	public static List<Lock> locks(Integer tableNumber, String date, String slotTimeStart, String slotTimeEnd) {
+		int start = LocalTime.parse(slotTimeStart).toSecondOfDay() / 60;
+		int end = (LocalTime.parse(slotTimeEnd).toSecondOfDay() + 59) / 60;
+		if (end <= start) {
+			throw new IllegalArgumentException("slotTimeEnd must be after slotTimeStart");
+		}
+
+		List<Lock> locks = new ArrayList<>();
+		for (int bucket = start - start % BUCKET_MINUTES; bucket < end; bucket += BUCKET_MINUTES) {
+			String id = ApiHandler.tableDateKey(tableNumber, date) + "#" + LocalTime.ofSecondOfDay(bucket * 60L);
+			locks.add(new Lock(id, Math.max(start, bucket), Math.min(end, bucket + BUCKET_MINUTES)));
+		}
+		if (locks.size() > MAX_LOCKS_PER_RESERVATION) {
+			throw new IllegalArgumentException("Reservation is longer than "
+					+ MAX_LOCKS_PER_RESERVATION * BUCKET_MINUTES + " minutes");
+		}
+		return locks;
+	}
+
+	/**
+	 * Takes the minutes of the lock for reservationId. The condition fails when any of them
+	 * belongs to another reservation; minutes already held by the same reservation pass, so
+	 * re-running a backfill is harmless.
+	 */
+	public static Update lockUpdate(String tableName, Lock lock, String reservationId) {
+		StringBuilder update = new StringBuilder("SET ");
+		StringBuilder condition = new StringBuilder();
+		for (int minute = lock.firstMinute; minute < lock.endMinute; minute++) {
+			String attribute = minuteAttribute(minute);
+			if (minute > lock.firstMinute) {
+				update.append(", ");
+				condition.append(" AND ");
+			}
+			update.append(attribute).append(" = :reservationId");
+			condition.append("(attribute_not_exists(").append(attribute).append(") OR ")
+					.append(attribute).append(" = :reservationId)");
+		}
+		Map<String, AttributeValue> values = new HashMap<>();
+		values.put(":reservationId", AttributeValue.builder().s(reservationId).build());
+		return Update.builder()
+				.tableName(tableName)
+				.key(Map.of("id", AttributeValue.builder().s(lock.id).build()))
+				.updateExpression(update.toString())
+				.conditionExpression(condition.toString())
+				.expressionAttributeValues(values)
+				.build();
+	}
+
+	static String minuteAttribute(int minuteOfDay) {
+		return "m" + minuteOfDay;
+	}
+
+	private static int readBucketMinutes() {
+		String value = System.getenv("slot_bucket_minutes");
+		return value == null || value.isEmpty() ? DEFAULT_BUCKET_MINUTES : Integer.parseInt(value);
+	}
+
+	/**
+	 * One bucket item and the minutes [firstMinute, endMinute) of the day taken in it.
+	 */
+	public static final class Lock {
+		public final String id;
+		public final int firstMinute;
+		public final int endMinute;
+
+		Lock(String id, int firstMinute, int endMinute) {
+			this.id = id;
+			this.firstMinute = firstMinute;
+			this.endMinute = endMinute;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.task11;
+
+import com.common.LambdaStartup;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Init-phase work of the API: runs the local hot paths once (Jackson codecs, routing, item
+ * mapping, page tokens), so their classes are loaded and serializers resolved before the first
+ * request. Before a SnapStart checkpoint it also creates the sync clients and makes one GetItem
+ * for a key that does not exist, loading the SDK request pipeline into the snapshot.
+ */
+final class Startup extends LambdaStartup {
+
+	static final Startup INSTANCE = new Startup();
+
+	private Startup() {
+	}
+
+	@Override
+	protected void warmUp() {
+		try {
+			SignUpRequest signUp = Codecs.SIGN_UP_READER.readValue(
+					"{\"firstName\":\"a\",\"lastName\":\"b\",\"email\":\"a@b.c\",\"password\":\"p\"}");
+			signUp.isComplete();
+			Codecs.SIGN_IN_READER.readValue("{\"email\":\"a@b.c\",\"password\":\"p\"}");
+			Table table = Codecs.TABLE_READER.readValue("{\"id\":1,\"number\":1,\"places\":4,\"isVip\":false,\"minOrder\":10}");
+			Reservation reservation = Codecs.RESERVATION_READER.readValue("{\"tableNumber\":1,\"clientName\":\"a\","
+					+ "\"phoneNumber\":\"1\",\"date\":\"2024-01-01\",\"slotTimeStart\":\"13:00\",\"slotTimeEnd\":\"15:00\"}");
+
+			Map<String, AttributeValue> tableItem = table.toItem();
+			Map<String, AttributeValue> reservationItem = reservation.toItem("warm-up");
+			Codecs.TABLES_WRITER.writeValueAsString(new Responses.Tables(List.of(Table.fromItem(tableItem))));
+			Codecs.RESERVATION_WRITER.writeValueAsString(Reservation.fromItem(reservationItem));
+			Codecs.TABLE_ID_WRITER.writeValueAsString(new Responses.TableId(1));
+			Codecs.RESERVATION_ID_WRITER.writeValueAsString(new Responses.ReservationId("warm-up"));
+			Codecs.SIGN_IN_WRITER.writeValueAsString(new Responses.SignIn("warm-up"));
+			AttributeValueToJsonConverter.writeAttributeValueMap(reservationItem, OutputStream.nullOutputStream());
+
+			PageTokens.decode(PageTokens.encode(Map.of("id", tableItem.get("id"))));
+			for (SlotLocks.Lock lock : SlotLocks.locks(1, "2024-01-01", "13:00", "15:00")) {
+				SlotLocks.lockUpdate("warm-up", lock, "warm-up");
+			}
+			ApiHandler.ROUTER.match("GET", "/tables/1");
+			ApiHandler.ROUTER.match("POST", "/reservations");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	protected void primeClients() {
+		AwsClients.cognito();
+		String tableName = System.getenv("tables_table");
+		if (tableName == null) {
+			return;
+		}
+		AwsClients.dynamoDb().getItem(GetItemRequest.builder()
+				.tableName(tableName)
+				.key(Map.of("id", AttributeValue.builder().s("-1").build()))
+				.build());
+	}
+}
@@ -0,0 +1,40 @@
+package com.task11;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Table {
+	public Integer id;
+	public Integer number;
+	public Integer places;
+	public Boolean isVip;
+	public Integer minOrder;
+
+	public static Table fromItem(Map<String, AttributeValue> item) {
+		Table table = new Table();
+		table.id = Integer.parseInt(item.get("id").s());
+		table.number = Integer.parseInt(item.get("number").n());
+		table.places = Integer.parseInt(item.get("places").n());
+		table.isVip = item.get("isVip").bool();
+		if (item.containsKey("minOrder")) {
+			table.minOrder = Integer.parseInt(item.get("minOrder").n());
+		}
+		return table;
+	}
+
+	public Map<String, AttributeValue> toItem() {
+		Map<String, AttributeValue> item = new LinkedHashMap<>();
+		item.put("id", AttributeValue.builder().s(String.valueOf(id)).build());
+		item.put("number", AttributeValue.builder().n(String.valueOf(number)).build());
+		item.put("places", AttributeValue.builder().n(String.valueOf(places)).build());
+		item.put("isVip", AttributeValue.builder().bool(isVip).build());
+		if (minOrder != null) {
+			item.put("minOrder", AttributeValue.builder().n(String.valueOf(minOrder)).build());
+		}
+		return item;
+	}
+}
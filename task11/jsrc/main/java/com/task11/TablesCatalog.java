@@ -0,0 +1,130 @@
+package com.task11;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cached copy of the Tables catalog. The handler instance lives as long as the Lambda container,
+ * so the snapshot survives warm invocations and is reloaded only after the TTL expires or after
+ * {@link #invalidate()} is called by a write in the same container.
+ *
+ * Tables created by another container are not seen until the next reload, so a number lookup
+ * that misses reloads the snapshot once, at most every MISS_RELOAD_INTERVAL_MILLIS; requests for
+ * numbers that really do not exist cannot turn every call into a scan.
+ */
+public class TablesCatalog {
+
+	static final long DEFAULT_TTL_SECONDS = 60;
+	static final long MISS_RELOAD_INTERVAL_MILLIS = 5000;
+
+	private final Supplier<List<Map<String, AttributeValue>>> loader;
+	private final long ttlMillis;
+	private final LongSupplier clock;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	private volatile Snapshot snapshot;
+
+	public TablesCatalog(Supplier<List<Map<String, AttributeValue>>> loader, long ttlSeconds) {
+		this(loader, ttlSeconds, System::currentTimeMillis);
+	}
+
+	TablesCatalog(Supplier<List<Map<String, AttributeValue>>> loader, long ttlSeconds, LongSupplier clock) {
+		this.loader = loader;
+		this.ttlMillis = ttlSeconds * 1000;
+		this.clock = clock;
+	}
+
+	public static long ttlSecondsFromEnv() {
+		String value = System.getenv("tables_cache_ttl_seconds");
+		return value == null || value.isEmpty() ? DEFAULT_TTL_SECONDS : Long.parseLong(value);
+	}
+
+	public List<Map<String, AttributeValue>> tables() {
+		return current().items;
+	}
+
+	public boolean containsNumber(Integer number) {
+		Snapshot current = current();
+		if (current.byNumber.containsKey(number)) {
+			return true;
+		}
+		synchronized (this) {
+			current = snapshot;
+			if (current == null || current.loadedAt + MISS_RELOAD_INTERVAL_MILLIS <= clock.getAsLong()) {
+				current = reload();
+			}
+			return current.byNumber.containsKey(number);
+		}
+	}
+
+	public void invalidate() {
+		snapshot = null;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	public String toString() {
+		return "TablesCatalog{hits=" + hits.get() + ", misses=" + misses.get() + "}";
+	}
+
+	private Snapshot current() {
+		Snapshot current = snapshot;
+		if (current != null && !current.isExpired(clock.getAsLong())) {
+			hits.incrementAndGet();
+			return current;
+		}
+		synchronized (this) {
+			current = snapshot;
+			if (current == null || current.isExpired(clock.getAsLong())) {
+				current = reload();
+			} else {
+				hits.incrementAndGet();
+			}
+			return current;
+		}
+	}
+
+	private Snapshot reload() {
+		misses.incrementAndGet();
+		long now = clock.getAsLong();
+		Snapshot current = new Snapshot(loader.get(), now, now + ttlMillis);
+		snapshot = current;
+		return current;
+	}
+
+	private static class Snapshot {
+		private final List<Map<String, AttributeValue>> items;
+		private final Map<Integer, Map<String, AttributeValue>> byNumber;
+		private final long loadedAt;
+		private final long expiresAt;
+
+		Snapshot(List<Map<String, AttributeValue>> items, long loadedAt, long expiresAt) {
+			this.items = Collections.unmodifiableList(items);
+			this.byNumber = new HashMap<>();
+			for (Map<String, AttributeValue> item : items) {
+				byNumber.put(Integer.parseInt(item.get("number").n()), item);
+			}
+			this.loadedAt = loadedAt;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired(long now) {
+			return now >= expiresAt;
+		}
+	}
+}
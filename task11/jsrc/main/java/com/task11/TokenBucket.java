@@ -0,0 +1,60 @@
+package com.task11;
+
+/**
+ * Blocking token bucket: refills at ratePerSecond up to burst tokens, {@link #acquire()} waits
+ * until a token is available. Used to stay under the per-account request quotas of Cognito.
+ *
+ * {@link #acquire(long)} only takes a token when it becomes available before the deadline, so a
+ * caller running out of time gives up at once instead of sleeping past it, and the token stays
+ * in the bucket for the next caller.
+ */
+public class TokenBucket {
+
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	private final double ratePerNano;
+	private final double burst;
+	private double tokens;
+	private long refilledAt;
+
+	public TokenBucket(double ratePerSecond, int burst) {
+		if (ratePerSecond <= 0 || burst < 1) {
+			throw new IllegalArgumentException("rate and burst must be positive");
+		}
+		this.ratePerNano = ratePerSecond / NANOS_PER_SECOND;
+		this.burst = burst;
+		this.tokens = burst;
+		this.refilledAt = System.nanoTime();
+	}
+
+	public void acquire() throws InterruptedException {
+		acquire(Long.MAX_VALUE);
+	}
+
+	/**
+	 * @param deadlineMillis wall clock time by which the token must be available
+	 * @return false, without taking a token, when it would only be available after the deadline
+	 */
+	public boolean acquire(long deadlineMillis) throws InterruptedException {
+		long waitNanos;
+		synchronized (this) {
+			refill();
+			// a negative balance is the debt the caller sleeps off, later callers queue behind it
+			waitNanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / ratePerNano);
+			if (waitNanos > 0 && waitNanos / 1_000_000 > deadlineMillis - System.currentTimeMillis()) {
+				return false;
+			}
+			tokens -= 1;
+		}
+		if (waitNanos > 0) {
+			Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+		}
+		return true;
+	}
+
+	private void refill() {
+		long now = System.nanoTime();
+		tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerNano);
+		refilledAt = now;
+	}
+}
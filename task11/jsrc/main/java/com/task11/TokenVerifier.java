@@ -0,0 +1,77 @@
+package com.task11;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Verifies Cognito id tokens locally: RS256 signature against the cached JWKS, issuer, audience
+ * (the app client id), token_use "id" and expiry. Access tokens of the same pool carry no aud and
+ * are rejected, as are tokens without exp. Tokens that already passed are remembered by their
+ * SHA-256 in a small LRU, so repeated calls with the same token only pay for the hash until the
+ * token expires.
+ */
+public class TokenVerifier {
+
+	static final int VERIFIED_CACHE_SIZE = 256;
+
+	private final JWTVerifier verifier;
+	private final Map<String, DecodedJWT> verifiedTokens = new LinkedHashMap<>(VERIFIED_CACHE_SIZE, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, DecodedJWT> eldest) {
+			return size() > VERIFIED_CACHE_SIZE;
+		}
+	};
+
+	public TokenVerifier(JwksKeySource keySource, String issuer, String clientId) {
+		this.verifier = JWT.require(Algorithm.RSA256(new JwksKeyProvider(keySource)))
+				.withIssuer(issuer)
+				.withAudience(clientId)
+				.withClaim("token_use", "id")
+				// a token without exp would stay valid, and cached, forever
+				.withClaimPresence("exp")
+				.build();
+	}
+
+	public static String cognitoIssuer(String region, String userPoolId) {
+		return "https://cognito-idp." + region + ".amazonaws.com/" + userPoolId;
+	}
+
+	public DecodedJWT verify(String token) throws JWTVerificationException {
+		String tokenHash = sha256(token);
+		synchronized (verifiedTokens) {
+			DecodedJWT cached = verifiedTokens.get(tokenHash);
+			if (cached != null) {
+				if (cached.getExpiresAt().after(new Date())) {
+					return cached;
+				}
+				verifiedTokens.remove(tokenHash);
+			}
+		}
+
+		DecodedJWT jwt = verifier.verify(token);
+		synchronized (verifiedTokens) {
+			verifiedTokens.put(tokenHash, jwt);
+		}
+		return jwt;
+	}
+
+	private static String sha256(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getEncoder().encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package com.task11;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Creates one user with a permanent password. The batch signup only talks to this interface, so
+ * it can run against a local stand-in instead of a Cognito user pool.
+ */
+@FunctionalInterface
+public interface UserProvisioner {
+
+	CompletableFuture<Void> provision(SignUpRequest user);
+}
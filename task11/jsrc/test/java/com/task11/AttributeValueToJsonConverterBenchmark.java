@@ -0,0 +1,100 @@
+package com.task11;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item to JSON bytes through the intermediate Map/List tree (convertAttributeValueMap, then
+ * ObjectMapper) against the streaming writer, on nested maps and on large lists. Run with
+ * -prof gc to compare allocations as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttributeValueToJsonConverterBenchmark {
+
+	@Param({"nested", "list"})
+	public String shape;
+
+	@Param({"10", "1000"})
+	public int size;
+
+	private Map<String, AttributeValue> item;
+	private ByteArrayOutputStream out;
+
+	@Setup
+	public void setUp() {
+		item = "nested".equals(shape) ? nested(size) : list(size);
+		out = new ByteArrayOutputStream(64 * 1024);
+	}
+
+	@Benchmark
+	public int tree() throws IOException {
+		out.reset();
+		Codecs.MAPPER.writeValue(out, AttributeValueToJsonConverter.convertAttributeValueMap(item));
+		return out.size();
+	}
+
+	@Benchmark
+	public int streaming() throws IOException {
+		out.reset();
+		AttributeValueToJsonConverter.writeAttributeValueMap(item, out);
+		return out.size();
+	}
+
+	// size entries, each a reservation map holding a table map holding a map of its own
+	private static Map<String, AttributeValue> nested(int size) {
+		Map<String, AttributeValue> item = new LinkedHashMap<>();
+		for (int i = 0; i < size; i++) {
+			Map<String, AttributeValue> owner = reservation(i);
+			Map<String, AttributeValue> table = reservation(i);
+			table.put("owner", AttributeValue.builder().m(owner).build());
+			Map<String, AttributeValue> reservation = reservation(i);
+			reservation.put("table", AttributeValue.builder().m(table).build());
+			item.put("reservation-" + i, AttributeValue.builder().m(reservation).build());
+		}
+		return item;
+	}
+
+	// one attribute holding a list of size reservation maps
+	private static Map<String, AttributeValue> list(int size) {
+		List<AttributeValue> reservations = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			reservations.add(AttributeValue.builder().m(reservation(i)).build());
+		}
+		Map<String, AttributeValue> item = new LinkedHashMap<>();
+		item.put("reservations", AttributeValue.builder().l(reservations).build());
+		return item;
+	}
+
+	private static Map<String, AttributeValue> reservation(int i) {
+		Map<String, AttributeValue> item = new LinkedHashMap<>();
+		item.put("id", AttributeValue.builder().s("reservation-" + i).build());
+		item.put("tableNumber", AttributeValue.builder().n(String.valueOf(i % 20)).build());
+		item.put("clientName", AttributeValue.builder().s("Client " + i).build());
+		item.put("deposit", AttributeValue.builder().n("125.50").build());
+		item.put("vip", AttributeValue.builder().bool(i % 3 == 0).build());
+		return item;
+	}
+}
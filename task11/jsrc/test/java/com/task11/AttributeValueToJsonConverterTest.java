@@ -0,0 +1,73 @@
+package com.task11;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class AttributeValueToJsonConverterTest {
+
+	@Test
+	void writesEveryTypeWithoutClosingTheStream() throws IOException {
+		Map<String, AttributeValue> item = new LinkedHashMap<>();
+		item.put("s", AttributeValue.builder().s("text \"quoted\"").build());
+		item.put("n", AttributeValue.builder().n("12345678901234567890.125").build());
+		item.put("b", AttributeValue.builder().b(SdkBytes.fromUtf8String("hi")).build());
+		item.put("bool", AttributeValue.builder().bool(true).build());
+		item.put("null", AttributeValue.builder().nul(true).build());
+		item.put("m", AttributeValue.builder().m(Map.of("x", AttributeValue.builder().n("-0.5").build())).build());
+		item.put("l", AttributeValue.builder().l(AttributeValue.builder().s("a").build(), AttributeValue.builder().n("1").build()).build());
+		item.put("ss", AttributeValue.builder().ss(List.of("a", "b")).build());
+		item.put("ns", AttributeValue.builder().ns(List.of("1", "2.5")).build());
+		item.put("bs", AttributeValue.builder().bs(SdkBytes.fromUtf8String("a"), SdkBytes.fromUtf8String("b")).build());
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		CloseTrackingStream out = new CloseTrackingStream(bytes);
+		AttributeValueToJsonConverter.writeAttributeValueMap(item, out);
+		out.write('\n');
+
+		assertFalse(out.closed);
+		assertEquals("{\"s\":\"text \\\"quoted\\\"\",\"n\":12345678901234567890.125,\"b\":\"aGk=\",\"bool\":true,"
+						+ "\"null\":null,\"m\":{\"x\":-0.5},\"l\":[\"a\",1],\"ss\":[\"a\",\"b\"],\"ns\":[1,2.5],"
+						+ "\"bs\":[\"YQ==\",\"Yg==\"]}\n",
+				bytes.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void treeAndStreamAgree() throws IOException {
+		Map<String, AttributeValue> item = Map.of(
+				"n", AttributeValue.builder().n("0.1").build(),
+				"m", AttributeValue.builder().m(Map.of("l", AttributeValue.builder()
+						.l(AttributeValue.builder().bool(false).build()).build())).build());
+
+		ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+		AttributeValueToJsonConverter.writeAttributeValueMap(item, streamed);
+
+		assertEquals(Codecs.MAPPER.readTree(Codecs.MAPPER.writeValueAsString(AttributeValueToJsonConverter.convertAttributeValueMap(item))),
+				Codecs.MAPPER.readTree(streamed.toByteArray()));
+	}
+
+	private static class CloseTrackingStream extends FilterOutputStream {
+		private boolean closed;
+
+		CloseTrackingStream(ByteArrayOutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			super.close();
+		}
+	}
+}
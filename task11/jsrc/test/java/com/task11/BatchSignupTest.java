@@ -0,0 +1,138 @@
+package com.task11;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchSignupTest {
+
+	private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+	@Test
+	void createsValidUsersAndReportsInvalidOnesInRequestOrder() throws InterruptedException {
+		FakeUserProvisioner provisioner = new FakeUserProvisioner(5, Set.of(), Set.of());
+		SignUpRequest incomplete = user("c@x.io");
+		incomplete.password = null;
+
+		Responses.SignUpBatch batch = batchSignup(provisioner, 4, 1000)
+				.run(Arrays.asList(user("a@x.io"), null, incomplete, user("d@x.io")), NO_DEADLINE);
+
+		assertEquals(List.of(BatchSignup.CREATED, BatchSignup.INVALID, BatchSignup.INVALID, BatchSignup.CREATED),
+				statuses(batch));
+		assertEquals(Arrays.asList("a@x.io", null, "c@x.io", "d@x.io"),
+				batch.results.stream().map(result -> result.email).collect(Collectors.toList()));
+		assertCounts(batch, 2, 0, 2, 0, 0);
+	}
+
+	@Test
+	void failedUsersAreReportedWithTheirError() throws InterruptedException {
+		FakeUserProvisioner provisioner = new FakeUserProvisioner(5, Set.of("b@x.io"), Set.of());
+
+		Responses.SignUpBatch batch = batchSignup(provisioner, 4, 1000)
+				.run(List.of(user("a@x.io"), user("b@x.io")), NO_DEADLINE);
+
+		assertEquals(List.of(BatchSignup.CREATED, BatchSignup.FAILED), statuses(batch));
+		assertEquals("User b@x.io already exists", batch.results.get(1).error);
+		assertCounts(batch, 1, 1, 0, 0, 0);
+	}
+
+	@Test
+	void provisionerThatThrowsCountsAsFailed() throws InterruptedException {
+		UserProvisioner throwing = user -> {
+			throw new IllegalArgumentException("bad pool");
+		};
+
+		Responses.SignUpBatch batch = new BatchSignup(throwing, 2, new TokenBucket(1000, 2), 10)
+				.run(List.of(user("a@x.io")), NO_DEADLINE);
+
+		assertEquals("bad pool", batch.results.get(0).error);
+		assertCounts(batch, 0, 1, 0, 0, 0);
+	}
+
+	@Test
+	void inFlightUsersStayWithinTheConcurrency() throws InterruptedException {
+		FakeUserProvisioner provisioner = new FakeUserProvisioner(20, Set.of(), Set.of());
+		List<SignUpRequest> users = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			users.add(user("user" + i + "@x.io"));
+		}
+
+		Responses.SignUpBatch batch = batchSignup(provisioner, 3, 1000).run(users, NO_DEADLINE);
+
+		assertCounts(batch, 20, 0, 0, 0, 0);
+		assertTrue(provisioner.getMaxInFlight() <= 3, "max in flight " + provisioner.getMaxInFlight());
+	}
+
+	@Test
+	void usersThatCannotGetATokenBeforeTheDeadlineAreSkipped() throws InterruptedException {
+		FakeUserProvisioner provisioner = new FakeUserProvisioner(1, Set.of(), Set.of());
+		// one token now, the next one in 10 seconds
+		BatchSignup signup = new BatchSignup(provisioner, 4, new TokenBucket(0.1, 1), 10);
+
+		long startedAt = System.currentTimeMillis();
+		Responses.SignUpBatch batch = signup.run(List.of(user("a@x.io"), user("b@x.io"), user("c@x.io")),
+				startedAt + 500);
+
+		assertTrue(System.currentTimeMillis() - startedAt < 2000, "waited for a token past the deadline");
+		assertEquals(List.of(BatchSignup.CREATED, BatchSignup.SKIPPED, BatchSignup.SKIPPED), statuses(batch));
+		assertCounts(batch, 1, 0, 0, 2, 0);
+	}
+
+	@Test
+	void usersStillInFlightAtTheDeadlineTimeOut() throws InterruptedException {
+		FakeUserProvisioner provisioner = new FakeUserProvisioner(1, Set.of(), Set.of("b@x.io"));
+
+		Responses.SignUpBatch batch = batchSignup(provisioner, 4, 1000)
+				.run(List.of(user("a@x.io"), user("b@x.io")), System.currentTimeMillis() + 300);
+
+		assertEquals(List.of(BatchSignup.CREATED, BatchSignup.TIMEOUT), statuses(batch));
+		assertCounts(batch, 1, 0, 0, 0, 1);
+	}
+
+	@Test
+	void summaryCountsEveryStatus() {
+		Responses.SignUpBatch batch = BatchSignup.summarize(List.of(
+				new Responses.SignUpResult("a", BatchSignup.CREATED, null),
+				new Responses.SignUpResult("b", BatchSignup.FAILED, "x"),
+				new Responses.SignUpResult("c", BatchSignup.INVALID, "x"),
+				new Responses.SignUpResult("d", BatchSignup.SKIPPED, "x"),
+				new Responses.SignUpResult("e", BatchSignup.TIMEOUT, "x"),
+				new Responses.SignUpResult("f", BatchSignup.CREATED, null)));
+
+		assertCounts(batch, 2, 1, 1, 1, 1);
+	}
+
+	private static BatchSignup batchSignup(UserProvisioner provisioner, int concurrency, double ratePerSecond) {
+		return new BatchSignup(provisioner, concurrency, new TokenBucket(ratePerSecond, concurrency), 100);
+	}
+
+	private static SignUpRequest user(String email) {
+		SignUpRequest user = new SignUpRequest();
+		user.firstName = "First";
+		user.lastName = "Last";
+		user.email = email;
+		user.password = "Passw0rd!";
+		return user;
+	}
+
+	private static List<String> statuses(Responses.SignUpBatch batch) {
+		return batch.results.stream().map(result -> result.status).collect(Collectors.toList());
+	}
+
+	private static void assertCounts(Responses.SignUpBatch batch, int created, int failed, int invalid, int skipped,
+									 int timedOut) {
+		assertEquals(created, batch.created, "created");
+		assertEquals(failed, batch.failed, "failed");
+		assertEquals(invalid, batch.invalid, "invalid");
+		assertEquals(skipped, batch.skipped, "skipped");
+		assertEquals(timedOut, batch.timedOut, "timedOut");
+	}
+}
@@ -0,0 +1,146 @@
+package com.task11;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Body parse and serialize cost per endpoint: the Map trees read and written through
+ * ObjectMapper that the handlers used before, against the typed models and the cached readers and
+ * writers of {@link Codecs}. Run with -prof gc to compare allocations as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecsBenchmark {
+
+	private static final String SIGN_UP = "{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\","
+			+ "\"email\":\"ada@example.com\",\"password\":\"Secret#123\"}";
+	private static final String TABLE = "{\"id\":12,\"number\":12,\"places\":6,\"isVip\":true,\"minOrder\":250}";
+	private static final String RESERVATION = "{\"tableNumber\":12,\"clientName\":\"Ada Lovelace\","
+			+ "\"phoneNumber\":\"+380501234567\",\"date\":\"2024-05-01\",\"slotTimeStart\":\"13:00\",\"slotTimeEnd\":\"15:00\"}";
+	private static final int TABLES = 50;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private List<Map<String, AttributeValue>> tableItems;
+
+	@Setup
+	public void setUp() throws IOException {
+		tableItems = new ArrayList<>();
+		for (int i = TABLES; i > 0; i--) {
+			Table table = Codecs.TABLE_READER.readValue(TABLE);
+			table.id = i;
+			table.number = i;
+			tableItems.add(table.toItem());
+		}
+	}
+
+	@Benchmark
+	public Object signUpMap() throws IOException {
+		Map<?, ?> body = objectMapper.readValue(SIGN_UP, Map.class);
+		return body.get("email");
+	}
+
+	@Benchmark
+	public Object signUpTyped() throws IOException {
+		SignUpRequest body = Codecs.SIGN_UP_READER.readValue(SIGN_UP);
+		return body.email;
+	}
+
+	@Benchmark
+	public Object createTableMap() throws IOException {
+		Map<?, ?> body = objectMapper.readValue(TABLE, Map.class);
+		Map<String, AttributeValue> item = new LinkedHashMap<>();
+		item.put("id", AttributeValue.builder().s(String.valueOf(body.get("id"))).build());
+		item.put("number", AttributeValue.builder().n(String.valueOf(body.get("number"))).build());
+		item.put("places", AttributeValue.builder().n(String.valueOf(body.get("places"))).build());
+		item.put("isVip", AttributeValue.builder().bool((Boolean) body.get("isVip")).build());
+		item.put("minOrder", AttributeValue.builder().n(String.valueOf(body.get("minOrder"))).build());
+		return item;
+	}
+
+	@Benchmark
+	public Object createTableTyped() throws IOException {
+		Table body = Codecs.TABLE_READER.readValue(TABLE);
+		return body.toItem();
+	}
+
+	@Benchmark
+	public Object createReservationMap() throws IOException {
+		Map<?, ?> body = objectMapper.readValue(RESERVATION, Map.class);
+		return body.get("slotTimeEnd");
+	}
+
+	@Benchmark
+	public Object createReservationTyped() throws IOException {
+		Reservation body = Codecs.RESERVATION_READER.readValue(RESERVATION);
+		return body.slotTimeEnd;
+	}
+
+	@Benchmark
+	public String getTablesMap() throws IOException {
+		List<Map<String, Object>> tables = tableItems.stream()
+				.map(CodecsBenchmark::tableMap)
+				.sorted(Comparator.comparing(table -> (Integer) table.get("id")))
+				.collect(Collectors.toList());
+		Map<String, Object> responseBody = new LinkedHashMap<>();
+		responseBody.put("tables", tables);
+		return objectMapper.writeValueAsString(responseBody);
+	}
+
+	@Benchmark
+	public String getTablesTyped() throws IOException {
+		List<Table> tables = tableItems.stream()
+				.map(Table::fromItem)
+				.sorted(Comparator.comparing(table -> table.id))
+				.collect(Collectors.toList());
+		return Codecs.TABLES_WRITER.writeValueAsString(new Responses.Tables(tables));
+	}
+
+	@Benchmark
+	public String reservationIdMap() throws IOException {
+		Map<String, Object> responseBody = new LinkedHashMap<>();
+		responseBody.put("reservationId", "0b5bd3b1-8f0e-4a3c-9d55-8b2b4f0c6a11");
+		return objectMapper.writeValueAsString(responseBody);
+	}
+
+	@Benchmark
+	public String reservationIdTyped() throws IOException {
+		return Codecs.RESERVATION_ID_WRITER.writeValueAsString(
+				new Responses.ReservationId("0b5bd3b1-8f0e-4a3c-9d55-8b2b4f0c6a11"));
+	}
+
+	// the Map tree the handler built per table before the typed models
+	private static Map<String, Object> tableMap(Map<String, AttributeValue> item) {
+		Map<String, Object> table = new LinkedHashMap<>();
+		table.put("id", Integer.parseInt(item.get("id").s()));
+		table.put("number", Integer.parseInt(item.get("number").n()));
+		table.put("places", Integer.parseInt(item.get("places").n()));
+		table.put("isVip", item.get("isVip").bool());
+		if (item.containsKey("minOrder")) {
+			table.put("minOrder", Integer.parseInt(item.get("minOrder").n()));
+		}
+		return table;
+	}
+}
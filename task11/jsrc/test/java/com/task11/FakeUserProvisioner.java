@@ -0,0 +1,60 @@
+package com.task11;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory {@link UserProvisioner}: completes every user after a fixed delay on its own thread,
+ * fails the emails it is told to, never completes the ones it is told to hang on, and records the
+ * highest number of users in flight at once.
+ */
+class FakeUserProvisioner implements UserProvisioner {
+
+	private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(4, runnable -> {
+		Thread thread = new Thread(runnable, "fake-provisioner");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final long delayMillis;
+	private final Set<String> failing;
+	private final Set<String> hanging;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	final List<String> provisioned = new CopyOnWriteArrayList<>();
+
+	FakeUserProvisioner(long delayMillis, Set<String> failing, Set<String> hanging) {
+		this.delayMillis = delayMillis;
+		this.failing = failing;
+		this.hanging = hanging;
+	}
+
+	@Override
+	public CompletableFuture<Void> provision(SignUpRequest user) {
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		if (hanging.contains(user.email)) {
+			return result;
+		}
+		maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+		SCHEDULER.schedule(() -> {
+			inFlight.decrementAndGet();
+			if (failing.contains(user.email)) {
+				result.completeExceptionally(new IllegalStateException("User " + user.email + " already exists"));
+			} else {
+				provisioned.add(user.email);
+				result.complete(null);
+			}
+		}, delayMillis, TimeUnit.MILLISECONDS);
+		return result;
+	}
+
+	int getMaxInFlight() {
+		return maxInFlight.get();
+	}
+}
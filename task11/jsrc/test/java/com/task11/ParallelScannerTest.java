@@ -0,0 +1,115 @@
+package com.task11;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class ParallelScannerTest {
+
+	@Test
+	void readsEverySegmentAndPage() {
+		FakeDynamoDb dynamoDb = new FakeDynamoDb(request -> page(request.hasExclusiveStartKey() ? 1 : 2,
+				!request.hasExclusiveStartKey()));
+		ParallelScanner scanner = new ParallelScanner(() -> dynamoDb, 4);
+
+		try (ParallelScanner.ParallelScan scan = scanner.scan("big")) {
+			assertEquals(4, scan.getTotalSegments());
+			assertEquals(12, count(scan));
+		}
+		assertEquals(8, dynamoDb.requests.size());
+	}
+
+	@Test
+	void smallTablesAreReadWithOneScanNextTime() {
+		FakeDynamoDb dynamoDb = new FakeDynamoDb(request -> page(3, false));
+		ParallelScanner scanner = new ParallelScanner(() -> dynamoDb, 4);
+
+		try (ParallelScanner.ParallelScan scan = scanner.scan("Tables")) {
+			count(scan);
+		}
+		dynamoDb.requests.clear();
+		try (ParallelScanner.ParallelScan scan = scanner.scan("Tables")) {
+			assertEquals(1, scan.getTotalSegments());
+			assertEquals(3, count(scan));
+		}
+		assertEquals(1, dynamoDb.requests.size());
+		assertNull(dynamoDb.requests.get(0).segment());
+		assertNull(dynamoDb.requests.get(0).totalSegments());
+	}
+
+	@Test
+	void errorInASegmentReachesTheConsumer() {
+		FakeDynamoDb dynamoDb = new FakeDynamoDb(request -> {
+			if (request.segment() == 2) {
+				throw new OutOfMemoryError("simulated");
+			}
+			return page(1, false);
+		});
+		ParallelScanner scanner = new ParallelScanner(() -> dynamoDb, 4);
+
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			try (ParallelScanner.ParallelScan scan = scanner.scan("big")) {
+				assertThrows(OutOfMemoryError.class, () -> count(scan));
+			}
+		});
+	}
+
+	private static int count(ParallelScanner.ParallelScan scan) {
+		int items = 0;
+		while (scan.hasNext()) {
+			scan.next();
+			items++;
+		}
+		return items;
+	}
+
+	private static ScanResponse page(int items, boolean more) {
+		List<Map<String, AttributeValue>> page = new ArrayList<>();
+		for (int i = 0; i < items; i++) {
+			page.add(Map.of("id", AttributeValue.builder().s("item-" + i).build()));
+		}
+		ScanResponse.Builder response = ScanResponse.builder().items(page).count(items);
+		if (more) {
+			response.lastEvaluatedKey(page.get(items - 1));
+		}
+		return response.build();
+	}
+
+	private static class FakeDynamoDb implements DynamoDbClient {
+		private final Function<ScanRequest, ScanResponse> pages;
+		private final List<ScanRequest> requests = Collections.synchronizedList(new ArrayList<>());
+
+		FakeDynamoDb(Function<ScanRequest, ScanResponse> pages) {
+			this.pages = pages;
+		}
+
+		@Override
+		public ScanResponse scan(ScanRequest request) {
+			requests.add(request);
+			return pages.apply(request);
+		}
+
+		@Override
+		public String serviceName() {
+			return "dynamodb";
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
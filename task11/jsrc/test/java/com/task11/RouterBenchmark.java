@@ -0,0 +1,68 @@
+package com.task11;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch cost of {@link ApiHandler#ROUTER} against the equals/regex chain it replaced, for the
+ * first route of the chain, the parameterized one and a miss. Run with -prof gc to compare
+ * allocations as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterBenchmark {
+
+	@Param({"POST /signup", "GET /tables/42", "GET /reservations", "GET /unknown/path"})
+	public String request;
+
+	private String method;
+	private String path;
+
+	@Setup
+	public void setUp() {
+		method = request.substring(0, request.indexOf(' '));
+		path = request.substring(request.indexOf(' ') + 1);
+	}
+
+	@Benchmark
+	public Object trie() {
+		Router.Match<?> match = ApiHandler.ROUTER.match(method, path);
+		return match == null ? null : match.handler();
+	}
+
+	@Benchmark
+	public Object ifChain() {
+		if ("/signup".equals(path) && "POST".equalsIgnoreCase(method)) {
+			return "signup";
+		} else if ("/signin".equals(path) && "POST".equalsIgnoreCase(method)) {
+			return "signin";
+		}
+		if ("/tables".equals(path) && "GET".equalsIgnoreCase(method)) {
+			return "tables";
+		} else if ("/tables".equals(path) && "POST".equalsIgnoreCase(method)) {
+			return "createTable";
+		} else if (path.matches("/tables/\\d+") && "GET".equalsIgnoreCase(method)) {
+			return path.split("/")[2];
+		} else if ("/reservations".equals(path) && "POST".equalsIgnoreCase(method)) {
+			return "createReservation";
+		} else if ("/reservations".equals(path) && "GET".equalsIgnoreCase(method)) {
+			return "reservations";
+		}
+		return null;
+	}
+}
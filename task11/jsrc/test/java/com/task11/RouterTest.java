@@ -0,0 +1,61 @@
+package com.task11;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RouterTest {
+
+	private final Router<String> router = new Router<String>()
+			.add("GET", "/tables", "tables")
+			.add("POST", "/tables", "createTable")
+			.add("GET", "/tables/{id:digits}", "table")
+			.add("GET", "/tables/{id:digits}/reservations/{date}", "tableReservations")
+			.add("GET", "/tables/vip", "vipTables");
+
+	@Test
+	void matchesMethodAndPath() {
+		assertEquals("tables", router.match("GET", "/tables").handler());
+		assertEquals("createTable", router.match("post", "/tables").handler());
+		assertNull(router.match("DELETE", "/tables"));
+		assertNull(router.match("GET", "/reservations"));
+		assertNull(router.match(null, "/tables"));
+		assertNull(router.match("GET", null));
+	}
+
+	@Test
+	void digitsAreKeptAsWritten() {
+		assertEquals("007", router.match("GET", "/tables/007").getString("id"));
+		assertEquals("12345678901234567890", router.match("GET", "/tables/12345678901234567890").getString("id"));
+		assertNull(router.match("GET", "/tables/-1"));
+		assertNull(router.match("GET", "/tables/1a"));
+	}
+
+	@Test
+	void slashesMustBeExact() {
+		assertNull(router.match("GET", "/tables/"));
+		assertNull(router.match("GET", "//tables"));
+		assertNull(router.match("GET", "/tables//1"));
+		assertNull(router.match("GET", "tables"));
+		assertNull(router.match("GET", "/"));
+		assertNull(router.match("GET", ""));
+	}
+
+	@Test
+	void staticSegmentsWinOverParameters() {
+		assertEquals("vipTables", router.match("GET", "/tables/vip").handler());
+
+		Router.Match<String> match = router.match("GET", "/tables/4/reservations/2024-01-01");
+		assertEquals("tableReservations", match.handler());
+		assertEquals("4", match.getString("id"));
+		assertEquals("2024-01-01", match.getString("date"));
+		assertThrows(IllegalArgumentException.class, () -> match.getString("missing"));
+	}
+
+	@Test
+	void rejectsConflictingParameters() {
+		assertThrows(IllegalArgumentException.class, () -> router.add("GET", "/tables/{number:digits}", "other"));
+	}
+}
@@ -0,0 +1,81 @@
+package com.task11;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotLocksTest {
+
+	@Test
+	void adjacentReservationsInOneBucketTakeDisjointMinutes() {
+		List<SlotLocks.Lock> first = SlotLocks.locks(1, "2024-05-01", "10:00", "10:10");
+		List<SlotLocks.Lock> second = SlotLocks.locks(1, "2024-05-01", "10:10", "10:20");
+
+		assertEquals(first.get(0).id, second.get(0).id);
+		assertTrue(minutes(first).stream().noneMatch(minutes(second)::contains));
+	}
+
+	@Test
+	void overlappingReservationsShareMinutes() {
+		Set<String> first = minutes(SlotLocks.locks(1, "2024-05-01", "10:00", "10:30"));
+		Set<String> second = minutes(SlotLocks.locks(1, "2024-05-01", "10:29", "11:00"));
+
+		assertTrue(first.contains("1#2024-05-01#10:15/m629"));
+		assertTrue(second.contains("1#2024-05-01#10:15/m629"));
+	}
+
+	@Test
+	void otherTablesAndDatesUseOtherItems() {
+		String lock = SlotLocks.locks(1, "2024-05-01", "10:00", "10:10").get(0).id;
+
+		assertFalse(lock.equals(SlotLocks.locks(2, "2024-05-01", "10:00", "10:10").get(0).id));
+		assertFalse(lock.equals(SlotLocks.locks(1, "2024-05-02", "10:00", "10:10").get(0).id));
+	}
+
+	@Test
+	void splitsIntoBucketsAtExactMinutes() {
+		List<SlotLocks.Lock> locks = SlotLocks.locks(3, "2024-05-01", "13:05", "13:50");
+
+		assertEquals(4, locks.size());
+		assertEquals("3#2024-05-01#13:00", locks.get(0).id);
+		assertEquals(13 * 60 + 5, locks.get(0).firstMinute);
+		assertEquals(13 * 60 + 15, locks.get(0).endMinute);
+		assertEquals("3#2024-05-01#13:45", locks.get(3).id);
+		assertEquals(13 * 60 + 50, locks.get(3).endMinute);
+	}
+
+	@Test
+	void lockUpdateTakesEveryMinuteConditionally() {
+		SlotLocks.Lock lock = SlotLocks.locks(1, "2024-05-01", "10:10", "10:12").get(0);
+		Update update = SlotLocks.lockUpdate("slots", lock, "r-1");
+
+		assertEquals("SET m610 = :reservationId, m611 = :reservationId", update.updateExpression());
+		assertEquals("(attribute_not_exists(m610) OR m610 = :reservationId)"
+				+ " AND (attribute_not_exists(m611) OR m611 = :reservationId)", update.conditionExpression());
+		assertEquals("r-1", update.expressionAttributeValues().get(":reservationId").s());
+		assertEquals("1#2024-05-01#10:00", update.key().get("id").s());
+	}
+
+	@Test
+	void rejectsEmptySlots() {
+		assertThrows(IllegalArgumentException.class, () -> SlotLocks.locks(1, "2024-05-01", "10:00", "10:00"));
+	}
+
+	private static Set<String> minutes(List<SlotLocks.Lock> locks) {
+		Set<String> minutes = new HashSet<>();
+		for (SlotLocks.Lock lock : locks) {
+			for (int minute = lock.firstMinute; minute < lock.endMinute; minute++) {
+				minutes.add(lock.id + "/" + SlotLocks.minuteAttribute(minute));
+			}
+		}
+		return minutes;
+	}
+}
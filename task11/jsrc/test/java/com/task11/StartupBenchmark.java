@@ -0,0 +1,47 @@
+package com.task11;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start cost of the init phase: every fork is a fresh JVM that runs one call once, so the
+ * score includes class loading. Compares the handler construction, which must not create any
+ * client, with the tuned clients of {@link AwsClients} and a client built on the SDK default
+ * chains. The region comes from the aws.region property, no call is made to AWS.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 10, jvmArgsAppend = "-Daws.region=eu-central-1")
+public class StartupBenchmark {
+
+	@Benchmark
+	public ApiHandler handler() {
+		return new ApiHandler();
+	}
+
+	@Benchmark
+	public DynamoDbClient dynamoDbClient() {
+		return AwsClients.dynamoDb();
+	}
+
+	@Benchmark
+	public DynamoDbClient dynamoDbClientDefaultChains() {
+		return DynamoDbClient.builder().build();
+	}
+
+	@Benchmark
+	public CognitoIdentityProviderAsyncClient cognitoAsyncClient() {
+		return AwsClients.cognitoAsync();
+	}
+}
@@ -0,0 +1,100 @@
+package com.task11;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TablesCatalogTest {
+
+	private final List<Map<String, AttributeValue>> stored = new ArrayList<>();
+	private final AtomicInteger loads = new AtomicInteger();
+	private final TablesCatalog catalog = new TablesCatalog(() -> {
+		loads.incrementAndGet();
+		return new ArrayList<>(stored);
+	}, 60);
+
+	@Test
+	void servesLookupsFromTheSnapshot() {
+		stored.add(table(1));
+
+		assertTrue(catalog.containsNumber(1));
+		assertTrue(catalog.containsNumber(1));
+		assertEquals(1, catalog.tables().size());
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void invalidateForcesReload() {
+		stored.add(table(1));
+		catalog.tables();
+		stored.add(table(2));
+		catalog.invalidate();
+
+		assertEquals(2, catalog.tables().size());
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void missReloadsAtMostOncePerInterval() {
+		stored.add(table(1));
+		catalog.tables();
+		// a table created by another container right after the load
+		stored.add(table(2));
+
+		// the snapshot is too fresh for a reload
+		assertFalse(catalog.containsNumber(2));
+		assertFalse(catalog.containsNumber(3));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void missOnAnOldSnapshotReloads() {
+		AtomicLong now = new AtomicLong(1_000_000);
+		TablesCatalog catalog = new TablesCatalog(() -> {
+			loads.incrementAndGet();
+			return new ArrayList<>(stored);
+		}, 3600, now::get);
+		stored.add(table(1));
+		catalog.tables();
+		stored.add(table(2));
+		now.addAndGet(TablesCatalog.MISS_RELOAD_INTERVAL_MILLIS);
+
+		assertTrue(catalog.containsNumber(2));
+		assertFalse(catalog.containsNumber(3));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void expiredSnapshotReloadsAndCountsHitsAndMisses() {
+		AtomicLong now = new AtomicLong(1_000_000);
+		TablesCatalog catalog = new TablesCatalog(() -> {
+			loads.incrementAndGet();
+			return new ArrayList<>(stored);
+		}, 60, now::get);
+		stored.add(table(1));
+
+		catalog.tables();
+		catalog.tables();
+		now.addAndGet(60_000);
+		catalog.tables();
+
+		assertEquals(2, loads.get());
+		assertEquals(1, catalog.getHits());
+		assertEquals(2, catalog.getMisses());
+	}
+
+	private static Map<String, AttributeValue> table(int number) {
+		return Map.of(
+				"id", AttributeValue.builder().n(String.valueOf(number)).build(),
+				"number", AttributeValue.builder().n(String.valueOf(number)).build());
+	}
+}
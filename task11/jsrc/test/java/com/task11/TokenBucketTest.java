@@ -0,0 +1,60 @@
+package com.task11;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+	@Test
+	void burstIsAvailableAtOnce() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(1, 3);
+
+		long startedAt = System.nanoTime();
+		for (int i = 0; i < 3; i++) {
+			assertTrue(bucket.acquire(System.currentTimeMillis()));
+		}
+		assertTrue(System.nanoTime() - startedAt < 500_000_000L);
+	}
+
+	@Test
+	void tokenAfterTheDeadlineIsRefusedWithoutWaiting() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(0.5, 1);
+		bucket.acquire();
+
+		long startedAt = System.currentTimeMillis();
+		assertFalse(bucket.acquire(startedAt + 200));
+		assertTrue(System.currentTimeMillis() - startedAt < 200, "waited before refusing");
+	}
+
+	@Test
+	void refusedCallDoesNotTakeTheToken() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(10, 1);
+		bucket.acquire();
+
+		// the next token is 100 ms away; refusing it must not push the one after further out
+		assertFalse(bucket.acquire(System.currentTimeMillis()));
+		assertFalse(bucket.acquire(System.currentTimeMillis()));
+		long startedAt = System.currentTimeMillis();
+		assertTrue(bucket.acquire(startedAt + 1000));
+		assertTrue(System.currentTimeMillis() - startedAt < 500, "waited for more than one token");
+	}
+
+	@Test
+	void waitsForATokenThatArrivesBeforeTheDeadline() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(20, 1);
+		bucket.acquire();
+
+		long startedAt = System.nanoTime();
+		assertTrue(bucket.acquire(System.currentTimeMillis() + 1000));
+		assertTrue(System.nanoTime() - startedAt >= 30_000_000L, "did not wait for the refill");
+	}
+
+	@Test
+	void rejectsNonPositiveRateOrBurst() {
+		assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+	}
+}
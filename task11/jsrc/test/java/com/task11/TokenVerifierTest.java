@@ -0,0 +1,129 @@
+package com.task11;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenVerifierTest {
+
+	private static final String ISSUER = TokenVerifier.cognitoIssuer("eu-central-1", "eu-central-1_pool");
+	private static final String CLIENT_ID = "client";
+
+	private KeyPair keyPair;
+	private FakeKeySource keySource;
+	private TokenVerifier verifier;
+
+	@BeforeEach
+	void setUp() throws NoSuchAlgorithmException {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		keyPair = generator.generateKeyPair();
+		keySource = new FakeKeySource(Map.of("kid-1", (RSAPublicKey) keyPair.getPublic()));
+		verifier = new TokenVerifier(keySource, ISSUER, CLIENT_ID);
+	}
+
+	@Test
+	void acceptsIdTokenOfTheClient() {
+		assertEquals("user", verifier.verify(sign(idToken())).getSubject());
+	}
+
+	@Test
+	void rejectsAccessTokens() {
+		assertThrows(JWTVerificationException.class, () -> verifier.verify(sign(idToken().withClaim("token_use", "access"))));
+	}
+
+	@Test
+	void rejectsOtherAudience() {
+		assertThrows(JWTVerificationException.class, () -> verifier.verify(sign(idToken().withAudience("other"))));
+	}
+
+	@Test
+	void rejectsOtherIssuer() {
+		assertThrows(JWTVerificationException.class, () -> verifier.verify(sign(idToken().withIssuer("https://example.com"))));
+	}
+
+	@Test
+	void rejectsTokensWithoutExpiry() {
+		JWTCreator.Builder token = JWT.create()
+				.withKeyId("kid-1")
+				.withIssuer(ISSUER)
+				.withAudience(CLIENT_ID)
+				.withSubject("user")
+				.withClaim("token_use", "id");
+		assertThrows(JWTVerificationException.class, () -> verifier.verify(sign(token)));
+	}
+
+	@Test
+	void rejectsExpiredTokens() {
+		assertThrows(JWTVerificationException.class,
+				() -> verifier.verify(sign(idToken().withExpiresAt(Instant.now().minusSeconds(60)))));
+	}
+
+	@Test
+	void failedLoadDoesNotDelayTheNextOne() {
+		keySource.failNext = true;
+		assertThrows(UncheckedIOException.class, () -> verifier.verify(sign(idToken())));
+
+		assertEquals("user", verifier.verify(sign(idToken())).getSubject());
+		assertEquals(2, keySource.loads.get());
+	}
+
+	@Test
+	void unknownKidIsLoadedOnceWithinTheRefreshInterval() {
+		verifier.verify(sign(idToken()));
+		assertThrows(JWTVerificationException.class, () -> verifier.verify(sign(idToken().withKeyId("kid-2"))));
+		assertThrows(JWTVerificationException.class, () -> verifier.verify(sign(idToken().withKeyId("kid-3"))));
+		assertEquals(1, keySource.loads.get());
+	}
+
+	private JWTCreator.Builder idToken() {
+		return JWT.create()
+				.withKeyId("kid-1")
+				.withIssuer(ISSUER)
+				.withAudience(CLIENT_ID)
+				.withSubject("user")
+				.withClaim("token_use", "id")
+				.withExpiresAt(Instant.now().plusSeconds(3600));
+	}
+
+	private String sign(JWTCreator.Builder token) {
+		return token.sign(Algorithm.RSA256((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate()));
+	}
+
+	private static class FakeKeySource implements JwksKeySource {
+		private final Map<String, RSAPublicKey> keys;
+		private final AtomicInteger loads = new AtomicInteger();
+		private volatile boolean failNext;
+
+		FakeKeySource(Map<String, RSAPublicKey> keys) {
+			this.keys = keys;
+		}
+
+		@Override
+		public Map<String, RSAPublicKey> loadKeys() throws IOException {
+			loads.incrementAndGet();
+			if (failNext) {
+				failNext = false;
+				throw new IOException("JWKS endpoint unavailable");
+			}
+			return keys;
+		}
+	}
+}
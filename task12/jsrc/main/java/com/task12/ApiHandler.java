@@ -11,8 +11,6 @@ import com.syndicate.deployment.annotations.lambda.LambdaHandler;
 import com.syndicate.deployment.annotations.resources.DependsOn;
 import com.syndicate.deployment.model.ResourceType;
 import com.syndicate.deployment.model.RetentionSetting;
-import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserRequest;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserResponse;
@@ -35,6 +33,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.syndicate.deployment.model.environment.ValueTransformer.USER_POOL_NAME_TO_CLIENT_ID;
@@ -57,18 +56,22 @@ import static com.syndicate.deployment.model.environment.ValueTransformer.USER_P
 })
 public class ApiHandler implements RequestHandler<Map<String, Object>, Map<String, Object>> {
 
+	private static final long INIT_STARTED_AT = System.nanoTime();
+	static final ObjectMapper objectMapper = new ObjectMapper();
+
 	private final String userPoolId = System.getenv("COGNITO_ID");
 
 	private final String clientId = System.getenv("CLIENT_ID");
-	private final CognitoIdentityProviderClient cognitoClient = CognitoIdentityProviderClient.builder()
-			.region(Region.of(System.getenv("REGION")))
-			.credentialsProvider(DefaultCredentialsProvider.create())
-			.build();
-	private final ObjectMapper objectMapper = new ObjectMapper();
-	private final DynamoDbClient dynamoDbClient = DynamoDbClient.create();
+	// clients are fetched on first use, so a route only creates the clients it calls
+	private final Supplier<CognitoIdentityProviderClient> cognitoClient = AwsClients::cognito;
+	private final Supplier<DynamoDbClient> dynamoDbClient = AwsClients::dynamoDb;
 	private final String reservationsTableName = System.getenv("reservations_table");
 	private final String tableName = System.getenv("tables_table");
 
+	public ApiHandler() {
+		Startup.INSTANCE.ready("api_handler", INIT_STARTED_AT);
+	}
+
 	@Override
 	public Map<String, Object> handleRequest(Map<String, Object> request, Context context) {
 		context.getLogger().log("reg: " + System.getenv("REGION"));
@@ -132,7 +135,7 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 
 			// Call Cognito signUp API
 
-			AdminCreateUserResponse response = cognitoClient.adminCreateUser(AdminCreateUserRequest.builder()
+			AdminCreateUserResponse response = cognitoClient.get().adminCreateUser(AdminCreateUserRequest.builder()
 					.userPoolId(userPoolId)
 					.username(email)
 					.temporaryPassword(password)
@@ -156,7 +159,7 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 			context.getLogger().log("AdminCreateUserRequest response: " + response.toString());
 
 
-			AdminSetUserPasswordResponse adminSetUserPasswordResponse =	cognitoClient.adminSetUserPassword(AdminSetUserPasswordRequest.builder()
+			AdminSetUserPasswordResponse adminSetUserPasswordResponse =	cognitoClient.get().adminSetUserPassword(AdminSetUserPasswordRequest.builder()
 					.userPoolId(userPoolId)
 					.username(email)
 					.password(password)
@@ -265,7 +268,7 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 					.item(item)
 					.build();
 
-			dynamoDbClient.putItem(putItemRequest);
+			dynamoDbClient.get().putItem(putItemRequest);
 
 			Map<String, Object> responseBody = new LinkedHashMap<>();
 			responseBody.put("id", id);
@@ -289,7 +292,7 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 					.key(Map.of("id", AttributeValue.builder().s(tableId).build()))
 					.build();
 
-			GetItemResponse getItemResponse = dynamoDbClient.getItem(getItemRequest);
+			GetItemResponse getItemResponse = dynamoDbClient.get().getItem(getItemRequest);
 
 			if (getItemResponse.item().isEmpty()) {
 				return createResponse(404, "Table not found");
@@ -329,7 +332,7 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 			authParams.put("USERNAME", email);
 			authParams.put("PASSWORD", password);
 
-			AdminInitiateAuthResponse adminInitiateAuthRequest = cognitoClient.adminInitiateAuth(AdminInitiateAuthRequest.builder()
+			AdminInitiateAuthResponse adminInitiateAuthRequest = cognitoClient.get().adminInitiateAuth(AdminInitiateAuthRequest.builder()
 					.authFlow(AuthFlowType.ADMIN_NO_SRP_AUTH)
 					.authParameters(authParams)
 					.userPoolId(userPoolId)
@@ -393,7 +396,7 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 					.tableName(reservationsTableName)
 					.build();
 
-			ScanResponse scanResponse = dynamoDbClient.scan(scanRequest);
+			ScanResponse scanResponse = dynamoDbClient.get().scan(scanRequest);
 			List<Map<String, AttributeValue>> existingReservations = scanResponse.items();
 
 			for (Map<String, AttributeValue> reservation : existingReservations) {
@@ -424,7 +427,7 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 					.item(item)
 					.build();
 
-			dynamoDbClient.putItem(putItemRequest);
+			dynamoDbClient.get().putItem(putItemRequest);
 
 			Map<String, Object> responseBody = new LinkedHashMap<>();
 			responseBody.put("reservationId", reservationId.toString());
@@ -443,7 +446,7 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 					.tableName(reservationsTableName)
 					.build();
 
-			ScanResponse scanResponse = dynamoDbClient.scan(scanRequest);
+			ScanResponse scanResponse = dynamoDbClient.get().scan(scanRequest);
 
 			List<Map<String, AttributeValue>> items  = scanResponse.items();
 			System.out.println("Items count: " + scanResponse.count());
@@ -503,6 +506,6 @@ public class ApiHandler implements RequestHandler<Map<String, Object>, Map<Strin
 				.tableName(tableName)
 				.build();
 
-		return dynamoDbClient.scan(scanRequest);
+		return dynamoDbClient.get().scan(scanRequest);
 	}
 }
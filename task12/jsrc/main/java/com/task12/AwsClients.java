@@ -0,0 +1,34 @@
+package com.task12;
+
+import com.common.ClientDefaults;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+/**
+ * SDK clients of the API, configured by {@link ClientDefaults}. Each client is created on first
+ * use through a holder class, so code paths that do not need a client never pay for it.
+ */
+public final class AwsClients {
+
+	private static final String REGION_VARIABLE = "REGION";
+
+	private AwsClients() {
+	}
+
+	public static DynamoDbClient dynamoDb() {
+		return DynamoDbHolder.CLIENT;
+	}
+
+	public static CognitoIdentityProviderClient cognito() {
+		return CognitoHolder.CLIENT;
+	}
+
+	private static final class DynamoDbHolder {
+		static final DynamoDbClient CLIENT = ClientDefaults.configure(DynamoDbClient.builder(), REGION_VARIABLE).build();
+	}
+
+	private static final class CognitoHolder {
+		static final CognitoIdentityProviderClient CLIENT = ClientDefaults.configure(
+				CognitoIdentityProviderClient.builder(), REGION_VARIABLE).build();
+	}
+}
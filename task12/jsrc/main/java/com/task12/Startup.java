@@ -0,0 +1,59 @@
+package com.task12;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.common.LambdaStartup;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Init-phase work of the API: runs the local hot paths of the handler once (token decoding, the
+ * Jackson paths of the shared mapper, item mapping and route matching), so their classes are
+ * loaded and serializers resolved before the first request, without logging like a request.
+ * Before a SnapStart checkpoint it also creates the clients and makes one GetItem for a key that
+ * does not exist, loading the SDK request pipeline into the snapshot.
+ */
+final class Startup extends LambdaStartup {
+
+	static final Startup INSTANCE = new Startup();
+
+	private Startup() {
+	}
+
+	@Override
+	protected void warmUp() {
+		try {
+			JWT.decode(JWT.create().withSubject("warm-up").sign(Algorithm.none()));
+			Map<?, ?> table = ApiHandler.objectMapper.readValue(
+					"{\"id\":1,\"number\":1,\"places\":4,\"isVip\":false,\"minOrder\":10}", Map.class);
+			ApiHandler.objectMapper.readValue("{\"tableNumber\":1,\"clientName\":\"a\",\"phoneNumber\":\"1\","
+					+ "\"date\":\"2024-01-01\",\"slotTimeStart\":\"13:00\",\"slotTimeEnd\":\"15:00\"}", Map.class);
+			Map<String, Object> item = AttributeValueToJsonConverter.convertAttributeValueMap(Map.of(
+					"id", AttributeValue.builder().s("1").build(),
+					"number", AttributeValue.builder().n(String.valueOf(table.get("number"))).build(),
+					"isVip", AttributeValue.builder().bool(false).build()));
+			ApiHandler.objectMapper.writeValueAsString(Map.of("tables", List.of(item)));
+			"/tables/1".matches("/tables/\\d+");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	protected void primeClients() {
+		AwsClients.cognito();
+		String tableName = System.getenv("tables_table");
+		if (tableName == null) {
+			return;
+		}
+		AwsClients.dynamoDb().getItem(GetItemRequest.builder()
+				.tableName(tableName)
+				.key(Map.of("id", AttributeValue.builder().s("-1").build()))
+				.build());
+	}
+}